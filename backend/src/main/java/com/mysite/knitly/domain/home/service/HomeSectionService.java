@@ -4,9 +4,9 @@ import com.mysite.knitly.domain.home.dto.HomeSummaryResponse;
 import com.mysite.knitly.domain.home.dto.LatestPostItem;
 import com.mysite.knitly.domain.home.dto.LatestReviewItem;
 import com.mysite.knitly.domain.home.repository.HomeQueryRepository;
-import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
+import com.mysite.knitly.domain.product.like.service.ProductLikeService;
 import com.mysite.knitly.domain.product.product.dto.ProductListResponse;
-import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.dto.ProductWithThumbnailDto;
 import com.mysite.knitly.domain.product.product.repository.ProductRepository;
 import com.mysite.knitly.domain.product.product.service.RedisProductService;
 import com.mysite.knitly.domain.user.entity.User;
@@ -27,7 +27,7 @@ public class HomeSectionService {
     private final RedisProductService redisProductService;
     private final ProductRepository productRepository;
     private final HomeQueryRepository homeQueryRepository;
-    private final ProductLikeRepository productLikeRepository;
+    private final ProductLikeService productLikeService;
 
     // 인기 Top5 조회 - 홈 화면용
     public List<ProductListResponse> getPopularTop5(User user) {
@@ -36,28 +36,29 @@ public class HomeSectionService {
         if (topIds.isEmpty()) {
             // Redis에 데이터 없으면 DB에서 직접 조회
             Pageable top5 = PageRequest.of(0, 5, Sort.by("purchaseCount").descending());
-            List<Product> products = productRepository.findByIsDeletedFalse(top5).getContent();
+            topIds = productRepository.findIdsByIsDeletedFalse(top5).getContent();
+        }
 
-            return mapProductsToResponse(user, products);
+        if (topIds.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        List<Product> unorderedProducts = productRepository.findByProductIdInAndIsDeletedFalse(topIds);
+        // 대표 이미지 + 판매자 이름만 DTO 프로젝션으로 조회
+        Map<Long, ProductWithThumbnailDto> dtoMap = productRepository.findWithThumbnailByProductIdIn(topIds).stream()
+                .collect(Collectors.toMap(ProductWithThumbnailDto::productId, dto -> dto, (first, second) -> first));
 
         // [수정] 찜 여부 확인
-        Set<Long> likedProductIds = getLikedProductIds(user, unorderedProducts);
+        Set<Long> likedProductIds = getLikedProductIds(user, topIds);
+        Map<Long, Integer> likeCounts = productLikeService.getLikeCounts(topIds);
 
         // Redis 순서대로 정렬
-        Map<Long, Product> productMap = unorderedProducts.stream()
-                .collect(Collectors.toMap(Product::getProductId, p -> p));
-
-        // [수정] 람다를 사용해 "from(Product, boolean)" 호출
         return topIds.stream()
-                .map(productMap::get)
+                .map(dtoMap::get)
                 .filter(Objects::nonNull)
-                .map(product -> ProductListResponse.from(
-                        product,
-                        likedProductIds.contains(product.getProductId())
-                ))
+                .map(dto -> dto.toResponse(likedProductIds.contains(dto.productId())))
+                .map(response -> likeCounts.containsKey(response.productId())
+                        ? response.withLikeCount(likeCounts.get(response.productId()))
+                        : response)
                 .collect(Collectors.toList());
     }
     // 최신 리뷰 N개
@@ -77,24 +78,10 @@ public class HomeSectionService {
         return new HomeSummaryResponse(popular, reviews, posts);
     }
 
-    private List<ProductListResponse> mapProductsToResponse(User user, List<Product> products) {
-        Set<Long> likedProductIds = getLikedProductIds(user, products);
-        return products.stream()
-                .map(product -> ProductListResponse.from(
-                        product,
-                        likedProductIds.contains(product.getProductId())
-                ))
-                .toList();
-    }
-
-    private Set<Long> getLikedProductIds(User user, List<Product> products) {
-        if (user == null || products.isEmpty()) {
+    private Set<Long> getLikedProductIds(User user, List<Long> productIds) {
+        if (user == null || productIds.isEmpty()) {
             return Collections.emptySet();
         }
-        List<Long> productIds = products.stream()
-                .map(Product::getProductId)
-                .toList();
-        // (가정) user.getUserId()
-        return productLikeRepository.findLikedProductIdsByUserId(user.getUserId(), productIds);
+        return productLikeService.getLikedProductIds(user.getUserId(), productIds);
     }
-}
\ No newline at end of file
+}
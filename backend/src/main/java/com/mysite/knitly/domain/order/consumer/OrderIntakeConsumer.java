@@ -0,0 +1,96 @@
+package com.mysite.knitly.domain.order.consumer;
+
+import com.mysite.knitly.domain.order.dto.OrderCreateRequest;
+import com.mysite.knitly.domain.order.dto.OrderCreateResponse;
+import com.mysite.knitly.domain.order.dto.OrderIntakeMessage;
+import com.mysite.knitly.domain.order.service.OrderFacade;
+import com.mysite.knitly.domain.order.service.OrderService;
+import com.mysite.knitly.domain.order.service.OrderTicketService;
+import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.domain.user.repository.UserRepository;
+import com.mysite.knitly.global.config.RabbitMQConfig;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 비동기 주문 접수 큐 소비자
+ *
+ * 샤드 큐마다 소비자 하나(concurrency = 1)를 두어 같은 샤드의 주문은 도착 순서대로 처리한다.
+ * 샤드는 부하 분산용이며 상품별 순서를 보장하지는 않는다 (재고 정합성은 Redis 예약 스크립트가 보장).
+ *
+ * 메시지는 재전달될 수 있으므로 티켓 ID를 주문의 tossOrderId(unique)로 사용한다.
+ * 주문 저장 후 티켓 기록 전에 실패해도, 재전달 시 이미 만든 주문을 찾아 티켓만 완료 처리한다.
+ * - 재고 부족 등 비즈니스 실패: 티켓에 실패를 기록하고 메시지는 정상 처리(ack)
+ * - 그 외 실패: 티켓에 실패를 기록하고 DLQ로 보냄
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIntakeConsumer {
+
+    private final OrderFacade orderFacade;
+    private final OrderService orderService;
+    private final OrderTicketService orderTicketService;
+    private final UserRepository userRepository;
+
+    @RabbitListener(id = "order-intake-0", queues = RabbitMQConfig.ORDER_INTAKE_QUEUE_PREFIX + "0", concurrency = "1")
+    @RabbitListener(id = "order-intake-1", queues = RabbitMQConfig.ORDER_INTAKE_QUEUE_PREFIX + "1", concurrency = "1")
+    @RabbitListener(id = "order-intake-2", queues = RabbitMQConfig.ORDER_INTAKE_QUEUE_PREFIX + "2", concurrency = "1")
+    @RabbitListener(id = "order-intake-3", queues = RabbitMQConfig.ORDER_INTAKE_QUEUE_PREFIX + "3", concurrency = "1")
+    public void handleOrderIntake(OrderIntakeMessage message) {
+        if (orderTicketService.isProcessed(message.ticketId())) {
+            log.info("[OrderIntake] 이미 처리된 티켓, 건너뜀 - ticketId={}", message.ticketId());
+            return;
+        }
+        if (completeExisting(message)) {
+            return;
+        }
+
+        try {
+            User user = userRepository.findById(message.userId())
+                    .orElseThrow(() -> new ServiceException(ErrorCode.USER_NOT_FOUND));
+
+            OrderCreateResponse response = orderFacade.createOrder(
+                    user, new OrderCreateRequest(message.productIds()), message.ticketId());
+            orderTicketService.complete(message, response);
+
+            log.info("[OrderIntake] 주문 생성 완료 - ticketId={}, orderId={}", message.ticketId(), response.orderId());
+
+        } catch (DataIntegrityViolationException e) {
+            // 같은 티켓의 주문이 먼저 저장된 경우 (tossOrderId unique 위반)
+            if (!completeExisting(message)) {
+                log.error("[OrderIntake] 주문 저장 실패 - ticketId={}", message.ticketId(), e);
+                orderTicketService.fail(message, null, "주문 처리 중 오류가 발생했습니다.");
+                throw new AmqpRejectAndDontRequeueException("Order intake failed.", e);
+            }
+
+        } catch (ServiceException e) {
+            log.info("[OrderIntake] 주문 생성 실패 - ticketId={}, code={}", message.ticketId(), e.getErrorCode().getCode());
+            orderTicketService.fail(message, e.getErrorCode().getCode(), e.getMessage());
+
+        } catch (Exception e) {
+            log.error("[OrderIntake] 주문 처리 중 오류 - ticketId={}", message.ticketId(), e);
+            orderTicketService.fail(message, null, "주문 처리 중 오류가 발생했습니다.");
+            throw new AmqpRejectAndDontRequeueException("Order intake failed.", e);
+        }
+    }
+
+    // 티켓 ID로 이미 만든 주문이 있으면 티켓을 완료 처리하고 true
+    private boolean completeExisting(OrderIntakeMessage message) {
+        Optional<OrderCreateResponse> existing = orderService.findOrder(message.ticketId());
+        existing.ifPresent(order -> {
+            orderTicketService.complete(message, order);
+            log.info("[OrderIntake] 이미 생성된 주문, 티켓만 완료 - ticketId={}, orderId={}",
+                    message.ticketId(), order.orderId());
+        });
+        return existing.isPresent();
+    }
+}
@@ -2,15 +2,19 @@ package com.mysite.knitly.domain.order.controller;
 
 import com.mysite.knitly.domain.order.dto.OrderCreateRequest;
 import com.mysite.knitly.domain.order.dto.OrderCreateResponse;
+import com.mysite.knitly.domain.order.dto.OrderTicketResponse;
 import com.mysite.knitly.domain.order.service.OrderFacade;
 import com.mysite.knitly.domain.order.service.OrderService;
+import com.mysite.knitly.domain.order.service.OrderTicketService;
 import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.global.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.UUID;
 
 @RestController
@@ -19,13 +23,44 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderFacade orderFacade;
+    private final OrderTicketService orderTicketService;
+    private final IdempotencyService idempotencyService;
+
     @PostMapping
     public ResponseEntity<OrderCreateResponse> createOrder(
             @AuthenticationPrincipal User user,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid OrderCreateRequest request
     ) {
-        // Facade의 메서드를 호출하도록 변경
-        OrderCreateResponse response = orderFacade.createOrderWithLock(user, request);
+        // 같은 Idempotency-Key 재시도는 주문을 다시 만들지 않고 첫 응답을 반환
+        OrderCreateResponse response = idempotencyService.execute(
+                "orders:" + user.getUserId(), idempotencyKey, request, OrderCreateResponse.class,
+                () -> orderFacade.createOrder(user, request));
         return ResponseEntity.ok(response);
     }
+
+    // 비동기 주문 접수: 큐에 적재 후 바로 202 + 티켓 반환
+    @PostMapping("/async")
+    public ResponseEntity<OrderTicketResponse> createOrderAsync(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid OrderCreateRequest request
+    ) {
+        OrderTicketResponse response = idempotencyService.execute(
+                "orders:async:" + user.getUserId(), idempotencyKey, request, OrderTicketResponse.class,
+                () -> orderTicketService.submit(user, request));
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/orders/tickets/" + response.ticketId()))
+                .body(response);
+    }
+
+    // 비동기 주문 처리 결과 조회
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<OrderTicketResponse> getOrderTicket(
+            @AuthenticationPrincipal User user,
+            @PathVariable String ticketId
+    ) {
+        return ResponseEntity.ok(orderTicketService.getTicket(user, ticketId));
+    }
 }
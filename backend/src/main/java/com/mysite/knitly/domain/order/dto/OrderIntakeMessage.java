@@ -0,0 +1,13 @@
+package com.mysite.knitly.domain.order.dto;
+
+import java.util.List;
+
+/**
+ * 비동기 주문 접수 큐 메시지
+ */
+public record OrderIntakeMessage(
+        String ticketId,
+        Long userId,
+        List<Long> productIds
+) {
+}
@@ -0,0 +1,28 @@
+package com.mysite.knitly.domain.order.dto;
+
+import com.mysite.knitly.domain.order.entity.OrderTicketStatus;
+
+/**
+ * 비동기 주문 접수 티켓 (Redis에 JSON으로 저장)
+ * userId는 본인 티켓인지 확인하는 용도로만 쓰고 응답에는 포함하지 않는다.
+ */
+public record OrderTicket(
+        String ticketId,
+        Long userId,
+        OrderTicketStatus status,
+        OrderCreateResponse order,
+        String errorCode,
+        String errorMessage
+) {
+    public static OrderTicket queued(String ticketId, Long userId) {
+        return new OrderTicket(ticketId, userId, OrderTicketStatus.QUEUED, null, null, null);
+    }
+
+    public OrderTicket completed(OrderCreateResponse order) {
+        return new OrderTicket(ticketId, userId, OrderTicketStatus.COMPLETED, order, null, null);
+    }
+
+    public OrderTicket failed(String errorCode, String errorMessage) {
+        return new OrderTicket(ticketId, userId, OrderTicketStatus.FAILED, null, errorCode, errorMessage);
+    }
+}
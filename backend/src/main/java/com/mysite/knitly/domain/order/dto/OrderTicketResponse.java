@@ -0,0 +1,21 @@
+package com.mysite.knitly.domain.order.dto;
+
+import com.mysite.knitly.domain.order.entity.OrderTicketStatus;
+
+public record OrderTicketResponse(
+        String ticketId,
+        OrderTicketStatus status,
+        OrderCreateResponse order,   // COMPLETED 인 경우
+        String errorCode,            // FAILED 인 경우
+        String errorMessage
+) {
+    public static OrderTicketResponse from(OrderTicket ticket) {
+        return new OrderTicketResponse(
+                ticket.ticketId(),
+                ticket.status(),
+                ticket.order(),
+                ticket.errorCode(),
+                ticket.errorMessage()
+        );
+    }
+}
@@ -57,11 +57,15 @@ public class Order {
 
     //== 생성 메서드 ==//
     public static Order create(User user, List<OrderItem> orderItems) {
+        // 토스페이먼츠 orderId 생성 (UUID 기반)
+        return create(user, orderItems, generateTossOrderId());
+    }
+
+    // 토스페이먼츠 orderId를 호출하는 쪽에서 정하는 경우 (비동기 주문 접수: 티켓 ID)
+    public static Order create(User user, List<OrderItem> orderItems, String tossOrderId) {
         Order order = new Order();
         order.user = user; // 사용자 정보 설정
-
-        // 토스페이먼츠 orderId 생성 (UUID 기반)
-        order.tossOrderId = generateTossOrderId();
+        order.tossOrderId = tossOrderId;
 
         // 모든 주문 상품을 추가하고 총액 계산
         double totalPrice = 0.0;
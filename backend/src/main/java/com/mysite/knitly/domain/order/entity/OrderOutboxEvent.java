@@ -0,0 +1,57 @@
+package com.mysite.knitly.domain.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 이벤트 아웃박스
+ *
+ * 주문/결제와 같은 트랜잭션에서 저장하고, OrderEventRelay가 커밋된 행만 읽어 RabbitMQ로 발행한다.
+ * 롤백된 주문의 이벤트는 발행되지 않고, 브로커 장애로 발행하지 못한 이벤트는 다음 주기에 다시 발행된다.
+ */
+@Entity
+@Getter
+@Table(name = "order_outbox_events",
+        indexes = @Index(name = "idx_order_outbox_events_published_at", columnList = "published_at, event_id"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EntityListeners(AuditingEntityListener.class)
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 100)
+    private String routingKey; // order.exchange 라우팅 키 (order.completed 등)
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // 메시지 본문 (JSON)
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime publishedAt; // null이면 미발행
+
+    @Column
+    private LocalDateTime claimedUntil; // 릴레이가 발행 중인 행 (이 시각까지 다른 릴레이가 가져가지 않음)
+
+    //== 생성 메서드 ==//
+    public static OrderOutboxEvent of(Long orderId, String routingKey, String payload) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.orderId = orderId;
+        event.routingKey = routingKey;
+        event.payload = payload;
+        return event;
+    }
+}
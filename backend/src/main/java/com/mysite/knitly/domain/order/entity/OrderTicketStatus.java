@@ -0,0 +1,8 @@
+package com.mysite.knitly.domain.order.entity;
+
+// 비동기 주문 접수 처리 상태
+public enum OrderTicketStatus {
+    QUEUED,     // 큐에 적재됨, 처리 대기
+    COMPLETED,  // 주문 생성 완료
+    FAILED      // 주문 생성 실패 (재고 부족 등)
+}
@@ -0,0 +1,49 @@
+package com.mysite.knitly.domain.order.repository;
+
+import com.mysite.knitly.domain.order.entity.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * 발행할 이벤트를 오래된 순으로 조회 (미발행이고 다른 릴레이가 가져가지 않은 행)
+     * FOR UPDATE SKIP LOCKED - 여러 인스턴스의 릴레이가 같은 행을 동시에 가져가지 않는다.
+     * 잠금은 claim 후 바로 커밋해서 풀고, 이후로는 claimedUntil로 다른 릴레이를 막는다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT e FROM OrderOutboxEvent e
+            WHERE e.publishedAt IS NULL
+            AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)
+            ORDER BY e.eventId ASC
+            """)
+    List<OrderOutboxEvent> findClaimableForUpdate(@Param("now") LocalDateTime now, Limit limit);
+
+    // 발행할 이벤트를 claimedUntil까지 이 릴레이 몫으로 표시
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.eventId IN :eventIds")
+    int claim(@Param("eventIds") Collection<Long> eventIds, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // 브로커가 수신 확인(ack)한 이벤트를 한 번에 발행 완료 처리
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.eventId IN :eventIds")
+    int markPublished(@Param("eventIds") Collection<Long> eventIds, @Param("publishedAt") LocalDateTime publishedAt);
+
+    // ack를 받지 못한 이벤트는 표시를 풀어 다음 주기에 다시 발행
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = NULL WHERE e.eventId IN :eventIds AND e.publishedAt IS NULL")
+    int unclaim(@Param("eventIds") Collection<Long> eventIds);
+}
@@ -0,0 +1,40 @@
+package com.mysite.knitly.domain.order.scheduler;
+
+import com.mysite.knitly.domain.order.service.OrderEventOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 주문 이벤트 아웃박스 릴레이
+ * 배치가 가득 차면 밀린 이벤트가 있다는 뜻이므로 쉬지 않고 이어서 발행한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventRelayScheduler {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final OrderEventOutboxService orderEventOutboxService;
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            int total = 0;
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                int published = orderEventOutboxService.relay();
+                total += published;
+                if (published < orderEventOutboxService.getBatchSize()) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("[OrderOutbox] 이벤트 발행: {} 건", total);
+            }
+        } catch (Exception e) {
+            log.error("주문 이벤트 발행 실패", e);
+        }
+    }
+}
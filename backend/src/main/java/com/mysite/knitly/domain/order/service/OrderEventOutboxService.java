@@ -0,0 +1,165 @@
+package com.mysite.knitly.domain.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.order.dto.EmailNotificationDto;
+import com.mysite.knitly.domain.order.entity.Order;
+import com.mysite.knitly.domain.order.entity.OrderOutboxEvent;
+import com.mysite.knitly.domain.order.repository.OrderOutboxEventRepository;
+import com.mysite.knitly.global.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 주문 이벤트 아웃박스
+ *
+ * - record*: 주문/결제 트랜잭션 안에서 이벤트 행을 함께 저장 (커밋되어야만 발행 대상이 됨)
+ * - relay: 미발행 행을 배치로 가져가(claim) 커밋한 뒤 publisher confirm 을 받으며 발행하고, ack 받은 행만 발행 완료 처리
+ *   (ack를 못 받은 행은 다음 주기에 다시 발행 - 최소 한 번 전달, 소비자는 messageId로 중복을 거른다)
+ *   confirm 을 기다리는 동안 행 잠금이나 DB 커넥션을 잡고 있지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventOutboxService {
+
+    private final OrderOutboxEventRepository orderOutboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMillis;
+
+    // 릴레이가 죽어도 이 시간이 지나면 다른 릴레이가 다시 가져간다 (confirm 대기보다 길어야 함)
+    @Value("${order.outbox.claim-timeout-ms:60000}")
+    private long claimTimeoutMillis;
+
+    // 결제 완료 이벤트 기록 (주문 확인 메일 발송용) - 호출하는 쪽 트랜잭션에 참여해야 한다
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderCompleted(Order order) {
+        EmailNotificationDto payload = new EmailNotificationDto(
+                order.getOrderId(), order.getUser().getUserId(), order.getUser().getEmail());
+        try {
+            orderOutboxEventRepository.save(OrderOutboxEvent.of(order.getOrderId(),
+                    RabbitMQConfig.ORDER_COMPLETED_ROUTING_KEY, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("주문 이벤트 직렬화 실패 - orderId=" + order.getOrderId(), e);
+        }
+    }
+
+    /**
+     * 미발행 이벤트 한 배치 발행
+     * 1. 짧은 트랜잭션으로 배치를 가져가고(claim) 커밋
+     * 2. 트랜잭션 밖에서 배치 전체를 먼저 보내고 confirm 을 한꺼번에 기다림 (건마다 왕복을 기다리지 않음)
+     * 3. 짧은 트랜잭션으로 ack 받은 행은 발행 완료, 나머지는 claim 해제
+     *
+     * @return 발행 완료 처리한 이벤트 수
+     */
+    public int relay() {
+        List<OrderOutboxEvent> events = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderOutboxEvent> claimable = orderOutboxEventRepository.findClaimableForUpdate(now, Limit.of(batchSize));
+            if (!claimable.isEmpty()) {
+                orderOutboxEventRepository.claim(claimable.stream().map(OrderOutboxEvent::getEventId).toList(),
+                        now.plus(Duration.ofMillis(claimTimeoutMillis)));
+            }
+            return claimable;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CorrelationData> pending = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : events) {
+            CorrelationData correlationData = new CorrelationData(String.valueOf(event.getEventId()));
+            try {
+                rabbitTemplate.send(RabbitMQConfig.ORDER_EXCHANGE, event.getRoutingKey(),
+                        toMessage(event), correlationData);
+            } catch (AmqpException e) {
+                log.error("[OrderOutbox] 발행 실패, 다음 주기에 재시도 - eventId={}", event.getEventId(), e);
+                break;
+            }
+            pending.put(event.getEventId(), correlationData);
+        }
+
+        List<Long> acked = awaitConfirms(pending);
+        List<Long> unacked = events.stream()
+                .map(OrderOutboxEvent::getEventId)
+                .filter(eventId -> !acked.contains(eventId))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acked.isEmpty()) {
+                orderOutboxEventRepository.markPublished(acked, LocalDateTime.now());
+            }
+            if (!unacked.isEmpty()) {
+                orderOutboxEventRepository.unclaim(unacked);
+            }
+        });
+        return acked.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<Long> awaitConfirms(Map<Long, CorrelationData> pending) {
+        List<Long> acked = new ArrayList<>(pending.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+
+        for (Map.Entry<Long, CorrelationData> entry : pending.entrySet()) {
+            try {
+                CorrelationData.Confirm confirm = entry.getValue().getFuture()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    acked.add(entry.getKey());
+                } else {
+                    log.warn("[OrderOutbox] 브로커 nack - eventId={}, reason={}", entry.getKey(), confirm.getReason());
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                log.warn("[OrderOutbox] confirm 대기 실패 - eventId={}", entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return acked;
+    }
+
+    // 저장된 JSON을 그대로 본문으로 사용 (소비자는 리스너 파라미터 타입으로 역직렬화)
+    private Message toMessage(OrderOutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId("order-event-" + event.getEventId())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+}
@@ -4,58 +4,24 @@ import com.mysite.knitly.domain.order.dto.OrderCreateRequest;
 import com.mysite.knitly.domain.order.dto.OrderCreateResponse;
 import com.mysite.knitly.domain.order.entity.Order;
 import com.mysite.knitly.domain.user.entity.User;
-import com.mysite.knitly.global.lock.RedisLockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Component
 @RequiredArgsConstructor
 public class OrderFacade {
 
-    private final RedisLockService redisLockService;
     private final OrderService orderService;
 
-    public OrderCreateResponse createOrderWithLock(User user, OrderCreateRequest request) {
-        // 락 키는 첫 번째 상품 ID를 기준으로 단순하게 생성 (혹은 모든 ID 조합)
-        String lockKey = generateCompositeLockKey(request.productIds());
-
-        long startTime = System.currentTimeMillis();
-        long waitTimeMillis = 2000; // 최대 2초 대기
-
-        while (!redisLockService.tryLock(lockKey)) {
-            // 현재 시간과 시작 시간을 비교하여 대기 시간을 초과했는지 확인
-            if (System.currentTimeMillis() - startTime > waitTimeMillis) {
-                // 대기 시간을 초과하면 예외를 발생시켜 실패 처리합니다.
-                throw new RuntimeException("Lock acquisition timed out for key: " + lockKey);
-            }
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("락 대기 중 인터럽트 발생", e);
-            }
-        }
-
-        try {
-            Order createdOrder = orderService.createOrder(user, request.productIds());
-            return OrderCreateResponse.from(createdOrder);
-        } finally {
-            redisLockService.unlock(lockKey);
-        }
+    public OrderCreateResponse createOrder(User user, OrderCreateRequest request) {
+        return createOrder(user, request, null);
     }
 
-    /**
-     * 상품 ID 리스트를 정렬하여 복합 락 키를 생성합니다.
-     * 정렬하는 이유: [A, B]와 [B, A]에 대해 동일한 락 키를 보장하여 데드락을 방지합니다.
-     */
-    private String generateCompositeLockKey(List<Long> productIds) {
-        String sortedIds = productIds.stream()
-                .sorted()
-                .map(String::valueOf)
-                .collect(Collectors.joining(":"));
-        return "order_lock:" + sortedIds;
+    // tossOrderId를 지정해서 주문 생성 (비동기 주문 접수는 티켓 ID를 써서 재처리 시 중복 생성을 막음)
+    public OrderCreateResponse createOrder(User user, OrderCreateRequest request, String tossOrderId) {
+        // 한정판매 재고는 Redis 예약 스크립트가 원자적으로 차감하므로 별도 락 없이 처리
+        // 구매수는 결제 승인 후 반영 (PaymentOutboxService) - 결제되지 않은 주문은 인기순에 포함하지 않음
+        Order createdOrder = orderService.createOrder(user, request.productIds(), tossOrderId);
+        return OrderCreateResponse.from(createdOrder);
     }
-}
\ No newline at end of file
+}
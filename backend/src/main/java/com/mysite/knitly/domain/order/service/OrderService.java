@@ -1,17 +1,23 @@
 package com.mysite.knitly.domain.order.service;
 
+import com.mysite.knitly.domain.order.dto.OrderCreateResponse;
 import com.mysite.knitly.domain.order.entity.Order;
 import com.mysite.knitly.domain.order.entity.OrderItem;
 import com.mysite.knitly.domain.order.repository.OrderRepository;
 import com.mysite.knitly.domain.product.product.entity.Product;
 import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import com.mysite.knitly.domain.product.product.service.StockReservationService;
 import com.mysite.knitly.domain.user.entity.User;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 
@@ -21,32 +27,74 @@ public class OrderService {
 
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final StockReservationService stockReservationService;
 
     // Facade에서만 호출될 핵심 비즈니스 로직
     @Transactional
     public Order createOrder(User user, List<Long> productIds) {
+        return createOrder(user, productIds, null);
+    }
+
+    /**
+     * tossOrderId를 지정해서 주문 생성 (null이면 새로 발급)
+     * tossOrderId는 unique라 같은 값으로 두 번 저장되지 않는다.
+     */
+    @Transactional
+    public Order createOrder(User user, List<Long> productIds, String tossOrderId) {
 // 1. 요청된 상품 ID 리스트로 모든 Product 엔티티를 조회
         List<Product> products = productRepository.findAllById(productIds);
         if (products.size() != productIds.size()) {
             throw new EntityNotFoundException("일부 상품을 찾을 수 없습니다.");
         }
 
-        // 2. 각 Product에 대해 OrderItem을 빌더로 생성하고, 재고를 직접 감소시킴
+        // 2. 각 Product에 대해 OrderItem을 빌더로 생성
         List<OrderItem> orderItems = products.stream()
-                .map(product -> {
-                    product.decreaseStock(1); // 재고 감소 (수량은 1로 가정)
-                    return OrderItem.builder()
-                            .product(product)
-                            .orderPrice(product.getPrice())
-                            .quantity(1)
-                            .build();
-                })
+                .map(product -> OrderItem.builder()
+                        .product(product)
+                        .orderPrice(product.getPrice())
+                        .quantity(1) // 수량은 1로 가정
+                        .build())
                 .collect(Collectors.toList());
 
         // 3. Order 엔티티 생성
-        Order order = Order.create(user, orderItems);
+        Order order = tossOrderId == null
+                ? Order.create(user, orderItems)
+                : Order.create(user, orderItems, tossOrderId);
+
+        // 4. 한정판매 상품 재고 예약 (Redis, 장바구니 단위 all-or-nothing)
+        //    주문 저장이 롤백되면 예약도 바로 해제 (이번 호출이 만든 예약일 때만 - 중복 접수가 기존 주문의 예약을 지우지 않도록)
+        String reservationId = order.getTossOrderId();
+        if (stockReservationService.reserve(reservationId, limitedQuantities(orderItems))) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        stockReservationService.release(reservationId);
+                    }
+                }
+            });
+        }
 
-        // 4. Order 저장 (OrderItem은 CascadeType.ALL에 의해 함께 저장됨)
+        // 5. Order 저장 (OrderItem은 CascadeType.ALL에 의해 함께 저장됨)
         return orderRepository.save(order);
     }
+
+    // tossOrderId로 이미 생성된 주문 조회 (재전달된 주문 접수 메시지 처리용)
+    @Transactional(readOnly = true)
+    public Optional<OrderCreateResponse> findOrder(String tossOrderId) {
+        return orderRepository.findByTossOrderId(tossOrderId).map(OrderCreateResponse::from);
+    }
+
+    /**
+     * 주문 상품 중 한정판매 상품의 상품 ID -> 수량
+     * 재고 예약/확정 대상
+     */
+    public static Map<Long, Integer> limitedQuantities(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .filter(item -> item.getProduct().getStockQuantity() != null)
+                .collect(Collectors.toMap(
+                        item -> item.getProduct().getProductId(),
+                        OrderItem::getQuantity,
+                        Integer::sum));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.mysite.knitly.domain.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.order.dto.*;
+import com.mysite.knitly.domain.order.entity.OrderTicketStatus;
+import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.global.config.RabbitMQConfig;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 비동기 주문 접수
+ *
+ * 요청 스레드는 티켓을 Redis에 기록하고 주문 접수 큐에 메시지를 넣은 뒤 바로 반환한다 (202 Accepted).
+ * 실제 주문 생성은 OrderIntakeConsumer가 처리하고 결과를 티켓에 기록하며,
+ * 클라이언트는 GET /orders/tickets/{ticketId}로 결과를 조회한다.
+ * 메시지는 장바구니의 가장 작은 상품 ID로 샤드 큐를 고른다. 샤드는 소비자 부하 분산용이라
+ * 상품이 겹치는 다른 장바구니(예: [1, 5]와 [2, 5])는 서로 다른 샤드에서 동시에 처리될 수 있다.
+ * 한정판매 재고는 샤드와 무관하게 Redis 예약 스크립트가 원자적으로 차감한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderTicketService {
+
+    private static final String TICKET_KEY_PREFIX = "order:ticket:";
+    private static final Duration TICKET_TTL = Duration.ofHours(1);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 주문 접수 (큐 적재 후 바로 반환)
+    public OrderTicketResponse submit(User user, OrderCreateRequest request) {
+        String ticketId = UUID.randomUUID().toString();
+        OrderTicket ticket = OrderTicket.queued(ticketId, user.getUserId());
+        save(ticket);
+
+        int shard = shardOf(request.productIds());
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.ORDER_INTAKE_EXCHANGE,
+                    RabbitMQConfig.orderIntakeRoutingKey(shard),
+                    new OrderIntakeMessage(ticketId, user.getUserId(), request.productIds()));
+        } catch (AmqpException e) {
+            // 처리될 메시지가 없으므로 QUEUED 티켓을 남기지 않음 (클라이언트는 티켓 ID를 받지 못함)
+            log.error("[OrderIntake] 주문 접수 메시지 발행 실패 - ticketId={}, userId={}", ticketId, user.getUserId(), e);
+            redisTemplate.delete(TICKET_KEY_PREFIX + ticketId);
+            throw new ServiceException(ErrorCode.ORDER_INTAKE_UNAVAILABLE);
+        }
+
+        log.info("[OrderIntake] 주문 접수 - ticketId={}, userId={}, shard={}", ticketId, user.getUserId(), shard);
+        return OrderTicketResponse.from(ticket);
+    }
+
+    // 티켓 조회 (본인 티켓만)
+    public OrderTicketResponse getTicket(User user, String ticketId) {
+        OrderTicket ticket = find(ticketId);
+        if (ticket == null || !ticket.userId().equals(user.getUserId())) {
+            throw new ServiceException(ErrorCode.ORDER_TICKET_NOT_FOUND);
+        }
+        return OrderTicketResponse.from(ticket);
+    }
+
+    // 재전달된 메시지인지 확인 (이미 처리된 티켓이면 true)
+    public boolean isProcessed(String ticketId) {
+        OrderTicket ticket = find(ticketId);
+        return ticket != null && ticket.status() != OrderTicketStatus.QUEUED;
+    }
+
+    public void complete(OrderIntakeMessage message, OrderCreateResponse order) {
+        save(OrderTicket.queued(message.ticketId(), message.userId()).completed(order));
+    }
+
+    public void fail(OrderIntakeMessage message, String errorCode, String errorMessage) {
+        save(OrderTicket.queued(message.ticketId(), message.userId()).failed(errorCode, errorMessage));
+    }
+
+    private int shardOf(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+        return Math.floorMod(Collections.min(productIds).hashCode(), RabbitMQConfig.ORDER_INTAKE_SHARDS);
+    }
+
+    private OrderTicket find(String ticketId) {
+        String json = redisTemplate.opsForValue().get(TICKET_KEY_PREFIX + ticketId);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, OrderTicket.class);
+        } catch (JsonProcessingException e) {
+            log.error("[OrderIntake] 티켓 역직렬화 실패 - ticketId={}", ticketId, e);
+            return null;
+        }
+    }
+
+    private void save(OrderTicket ticket) {
+        try {
+            redisTemplate.opsForValue().set(TICKET_KEY_PREFIX + ticket.ticketId(),
+                    objectMapper.writeValueAsString(ticket), TICKET_TTL);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("주문 티켓 직렬화 실패: " + ticket.ticketId(), e);
+        }
+    }
+}
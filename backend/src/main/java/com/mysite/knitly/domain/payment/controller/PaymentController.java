@@ -5,6 +5,7 @@ import com.mysite.knitly.domain.payment.dto.PaymentCancelResponse;
 import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
 import com.mysite.knitly.domain.payment.dto.PaymentConfirmResponse;
 import com.mysite.knitly.domain.payment.service.PaymentService;
+import com.mysite.knitly.global.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,13 +16,20 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/payments")
 public class PaymentController {
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     //토스페이먼츠 결제 승인
+    // 키 공간은 주문별로 나눠, 다른 주문이 같은 Idempotency-Key를 보내도 섞이지 않게 한다.
+    // Idempotency-Key가 없으면 토스 orderId를 키로 사용 (같은 주문의 승인 요청이 동시에 들어와도 한 번만 처리)
     @PostMapping("/confirm")
     public ResponseEntity<PaymentConfirmResponse> confirmPayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid PaymentConfirmRequest request
     ) {
-        PaymentConfirmResponse response = paymentService.confirmPayment(request);
+        String key = (idempotencyKey == null || idempotencyKey.isBlank()) ? request.orderId() : idempotencyKey;
+        PaymentConfirmResponse response = idempotencyService.execute(
+                "payments:confirm:" + request.orderId(), key, request, PaymentConfirmResponse.class,
+                () -> paymentService.confirmPayment(request));
         return ResponseEntity.ok(response);
     }
 
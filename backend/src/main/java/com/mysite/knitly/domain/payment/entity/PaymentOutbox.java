@@ -0,0 +1,120 @@
+package com.mysite.knitly.domain.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 결제 승인 아웃박스
+ *
+ * PG 승인 요청 전에 먼저 커밋해 두는 결제 의도 기록.
+ * PG 승인 후 Payment 저장이 실패하거나 응답을 받지 못해도 이 행이 남아 있으므로
+ * 복구 작업이 같은 idempotencyKey로 PG에 다시 물어 Payment를 마저 저장한다.
+ */
+@Entity
+@Getter
+@Table(name = "payment_outbox",
+        indexes = @Index(name = "idx_payment_outbox_status_updated_at", columnList = "status, updated_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EntityListeners(AuditingEntityListener.class)
+public class PaymentOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long outboxId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tossOrderId; // 주문당 하나 - 같은 주문의 승인이 동시에 진행되지 않도록
+
+    @Column(nullable = false, length = 200)
+    private String paymentKey;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    @Column(nullable = false, length = 64)
+    private String idempotencyKey; // PG 승인 요청의 Idempotency-Key
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentOutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts; // 복구 작업의 재확인 횟수
+
+    @Column(columnDefinition = "TEXT")
+    private String response; // PG 승인 응답 (APPROVED 이후)
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    //== 생성 메서드 ==//
+    public static PaymentOutbox pending(Long orderId, String tossOrderId, String paymentKey, Long amount) {
+        PaymentOutbox outbox = new PaymentOutbox();
+        outbox.orderId = orderId;
+        outbox.tossOrderId = tossOrderId;
+        outbox.start(paymentKey, amount);
+        return outbox;
+    }
+
+    // 거절된 주문을 새 결제 인증으로 다시 승인 요청
+    public void retry(String paymentKey, Long amount) {
+        start(paymentKey, amount);
+    }
+
+    /**
+     * PG 승인 완료 - 응답을 남겨 두면 PG를 다시 부르지 않고 Payment를 저장할 수 있다
+     * PENDING에서만 바뀐다. 이미 COMPLETED인 행을 APPROVED로 되돌리면 복구 작업이 Payment를 한 번 더 만든다.
+     * @return 상태가 바뀌었으면 true
+     */
+    public boolean approve(String response) {
+        if (this.status != PaymentOutboxStatus.PENDING) {
+            return false;
+        }
+        this.status = PaymentOutboxStatus.APPROVED;
+        this.response = response;
+        return true;
+    }
+
+    // Payment 저장 완료
+    public void complete() {
+        this.status = PaymentOutboxStatus.COMPLETED;
+    }
+
+    /**
+     * PG 거절
+     * PENDING에서만 바뀐다. 복구 작업이 이미 승인/완료한 행을 FAILED로 바꾸면 결제된 주문의 재고가 풀린다.
+     * @return 상태가 바뀌었으면 true
+     */
+    public boolean fail() {
+        if (this.status != PaymentOutboxStatus.PENDING) {
+            return false;
+        }
+        this.status = PaymentOutboxStatus.FAILED;
+        return true;
+    }
+
+    private void start(String paymentKey, Long amount) {
+        this.paymentKey = paymentKey;
+        this.amount = amount;
+        this.idempotencyKey = UUID.randomUUID().toString();
+        this.status = PaymentOutboxStatus.PENDING;
+        this.attempts = 0;
+        this.response = null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.mysite.knitly.domain.payment.entity;
+
+public enum PaymentOutboxStatus {
+    // PG 승인 요청 전/결과 모름, PG 승인 완료(Payment 저장 전), Payment 저장 완료, PG 거절
+    PENDING, APPROVED, COMPLETED, FAILED
+}
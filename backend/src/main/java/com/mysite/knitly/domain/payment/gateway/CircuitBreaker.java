@@ -0,0 +1,73 @@
+package com.mysite.knitly.domain.payment.gateway;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * 연속 실패 횟수 기반 서킷 브레이커
+ *
+ * - CLOSED: 정상 호출. 연속 실패가 failureThreshold에 도달하면 OPEN
+ * - OPEN: openDuration 동안 호출하지 않고 바로 실패 처리
+ * - HALF_OPEN: openDuration이 지나면 한 건만 시험 호출, 성공하면 CLOSED / 실패하면 다시 OPEN
+ *   시험 호출이 결과 없이 끝나면(release) 바로 다음 호출에 시험 기회를 넘기고,
+ *   결과 보고가 누락되어도 openDuration이 지나면 새 시험 호출을 허용한다 (HALF_OPEN에 멈추지 않음).
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    // 호출해도 되는지 확인 (OPEN 기간이 지났으면 시험 호출 한 건만 허용)
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        long now = clock.millis();
+        if ((state == State.OPEN && now - openedAt >= openDuration.toMillis())
+                || (state == State.HALF_OPEN && now - trialStartedAt >= openDuration.toMillis())) {
+            state = State.HALF_OPEN;
+            trialStartedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    // 성공/실패를 판단할 수 없이 끝난 호출 (인터럽트, 요청 생성 실패 등)
+    // 시험 호출이었다면 OPEN 대기는 이미 지났으므로 다음 호출이 바로 시험할 수 있게 되돌린다.
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mysite.knitly.domain.payment.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트용 가짜 PG
+ *
+ * 네트워크 호출 없이 설정된 지연 분포만큼 기다린 뒤 토스 응답 형식의 JSON을 돌려준다.
+ * 설정된 비율로 승인 거절/PG 장애를 흉내내므로, 주문 → 결제 승인 → 메일 발송 흐름을
+ * 단일 머신에서 외부 의존 없이 측정할 수 있다. (실제 결제는 일어나지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "fake")
+public class FakePaymentGateway implements PaymentGateway {
+
+    private final ObjectMapper objectMapper;
+    private final FakePaymentGatewayProperties properties;
+
+    @PostConstruct
+    void warn() {
+        log.warn("FakePaymentGateway 활성화 - 실제 결제가 일어나지 않습니다. latency={}ms+exp({}ms), declineRate={}, errorRate={}",
+                properties.getBaseLatencyMs(), properties.getTailLatencyMs(),
+                properties.getDeclineRate(), properties.getErrorRate());
+    }
+
+    @Override
+    public JsonNode confirm(PaymentConfirmRequest request, String idempotencyKey) {
+        simulate();
+
+        String now = OffsetDateTime.now().toString();
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("paymentKey", request.paymentKey())
+                .put("orderId", request.orderId())
+                .put("orderName", "부하 테스트 주문")
+                .put("mId", "fake")
+                .put("method", "카드")
+                .put("status", "DONE")
+                .put("totalAmount", request.amount())
+                .put("requestedAt", now)
+                .put("approvedAt", now);
+        response.putObject("card")
+                .put("company", "FAKE")
+                .put("number", "1234********5678")
+                .put("installmentPlanMonths", "0")
+                .put("approveNo", "00000000")
+                .put("ownerType", "개인");
+        return response;
+    }
+
+    @Override
+    public JsonNode cancel(String paymentKey, String cancelReason) {
+        simulate();
+
+        return objectMapper.createObjectNode()
+                .put("paymentKey", paymentKey)
+                .put("status", "CANCELED")
+                .put("cancelReason", cancelReason);
+    }
+
+    // 지연 후 설정된 비율로 거절/장애 발생
+    private void simulate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long tail = properties.getTailLatencyMs() > 0
+                ? (long) (-properties.getTailLatencyMs() * Math.log(1 - random.nextDouble()))
+                : 0;
+        try {
+            Thread.sleep(properties.getBaseLatencyMs() + tail);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+        }
+
+        double roll = random.nextDouble();
+        if (roll < properties.getErrorRate()) {
+            throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+        }
+        if (roll < properties.getErrorRate() + properties.getDeclineRate()) {
+            throw new ServiceException(ErrorCode.PAYMENT_API_CALL_FAILED);
+        }
+    }
+}
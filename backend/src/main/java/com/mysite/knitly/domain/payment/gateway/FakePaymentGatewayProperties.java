@@ -0,0 +1,22 @@
+package com.mysite.knitly.domain.payment.gateway;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * FakePaymentGateway 지연/오류 설정 (payment.gateway=fake 일 때만 사용)
+ * 응답 지연 = baseLatencyMs + 평균 tailLatencyMs 인 지수분포 값 (긴 꼬리 지연 재현)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "payment.fake")
+public class FakePaymentGatewayProperties {
+
+    private long baseLatencyMs = 50;
+    private long tailLatencyMs = 30;
+    private double declineRate = 0.0;  // 카드 거절 등 PG가 승인을 거절하는 비율 (4xx)
+    private double errorRate = 0.0;    // PG 장애 비율 (5xx / 타임아웃)
+}
@@ -0,0 +1,31 @@
+package com.mysite.knitly.domain.payment.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
+
+/**
+ * 결제대행(PG) API
+ *
+ * 응답은 토스페이먼츠 Payment 객체 형식의 JSON을 기준으로 한다.
+ * payment.gateway 설정으로 구현체를 고른다.
+ * - toss (기본값): TossPaymentGateway - 실제 토스페이먼츠 API 호출
+ * - fake: FakePaymentGateway - 네트워크 없이 지연/오류만 흉내내는 부하 테스트용
+ *
+ * 실패 시 ServiceException을 던진다.
+ * - PAYMENT_API_CALL_FAILED: PG가 요청을 거절함 (카드 거절 등 4xx)
+ * - PAYMENT_GATEWAY_UNAVAILABLE: 요청을 보내지 않음 (서킷 OPEN)
+ * - PAYMENT_GATEWAY_TIMEOUT: 요청은 보냈지만 결과를 모름 (타임아웃, 5xx, 해석할 수 없는 응답)
+ *   승인됐을 수 있으므로 호출 측은 결제를 실패 처리하지 말고 복구 작업에 맡긴다.
+ */
+public interface PaymentGateway {
+
+    /**
+     * 결제 승인
+     * 같은 idempotencyKey로 다시 요청하면 PG는 처음 요청의 결과를 그대로 돌려준다.
+     * (결과를 모르는 승인 건을 복구할 때 재요청해도 이중 승인되지 않음)
+     */
+    JsonNode confirm(PaymentConfirmRequest request, String idempotencyKey);
+
+    // 결제 취소
+    JsonNode cancel(String paymentKey, String cancelReason);
+}
@@ -0,0 +1,169 @@
+package com.mysite.knitly.domain.payment.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 토스페이먼츠 PaymentGateway 구현
+ *
+ * - HttpClient 하나를 재사용해서 연결을 keep-alive로 유지 (HTTP/2 우선, 미지원 시 HTTP/1.1)
+ * - 연결/응답 타임아웃을 지정해 PG 지연이 요청 스레드를 무한정 잡지 않게 한다
+ * - Basic 인증 헤더는 시작 시 한 번만 만든다
+ * - 연결 실패/타임아웃/5xx가 연속되면 서킷을 열어 한동안 호출하지 않고 바로 실패 처리
+ *   (카드 거절 같은 4xx 응답은 PG가 정상 동작한 것이므로 실패로 세지 않음)
+ * - HttpClient.send는 응답까지 호출 스레드를 블로킹한다. 점유 시간은 readTimeout으로 제한한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "toss", matchIfMissing = true)
+public class TossPaymentGateway implements PaymentGateway {
+
+    private static final String CONFIRM_PATH = "/v1/payments/confirm";
+    private static final String CANCEL_PATH = "/v1/payments/%s/cancel";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String authorization;
+    private final Duration readTimeout;
+    private final CircuitBreaker circuitBreaker;
+
+    public TossPaymentGateway(
+            ObjectMapper objectMapper,
+            @Value("${payment.toss.base-url:https://api.tosspayments.com}") String baseUrl,
+            @Value("${payment.toss.secret-key}") String secretKey,
+            @Value("${payment.toss.connect-timeout-ms:3000}") long connectTimeoutMillis,
+            @Value("${payment.toss.read-timeout-ms:10000}") long readTimeoutMillis,
+            @Value("${payment.toss.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${payment.toss.circuit-breaker.open-duration-ms:30000}") long openDurationMillis
+    ) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMillis),
+                Clock.systemUTC());
+    }
+
+    @Override
+    public JsonNode confirm(PaymentConfirmRequest request, String idempotencyKey) {
+        return post(baseUrl + CONFIRM_PATH, request, idempotencyKey);
+    }
+
+    @Override
+    public JsonNode cancel(String paymentKey, String cancelReason) {
+        return post(baseUrl + String.format(CANCEL_PATH, paymentKey), Map.of("cancelReason", cancelReason), null);
+    }
+
+    private JsonNode post(String url, Object body, String idempotencyKey) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("토스페이먼츠 서킷 OPEN - 호출 생략: {}", url);
+            throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE);
+        }
+
+        HttpResponse<byte[]> response;
+        boolean reported = false;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(readTimeout)
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (idempotencyKey != null) {
+                request.header(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+            }
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            reported = true;
+            if (response.statusCode() >= 500) {
+                circuitBreaker.onFailure();
+                log.error("토스페이먼츠 API 5xx 응답 - status: {}, url: {}", response.statusCode(), url);
+                throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+            }
+            circuitBreaker.onSuccess();
+        } catch (IOException e) {
+            // 요청이 PG에 도달했는지 알 수 없음
+            circuitBreaker.onFailure();
+            reported = true;
+            log.error("토스페이먼츠 API 호출 실패: {}", url, e);
+            throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+        } finally {
+            // 인터럽트, 요청 생성 중 RuntimeException 등 결과를 모르는 경우 시험 호출 자리를 돌려줌
+            if (!reported) {
+                circuitBreaker.release();
+            }
+        }
+        return handleResponse(response);
+    }
+
+    /**
+     * 토스 API 응답 처리
+     * 4xx(408, 429 제외)만 PG가 요청을 거절한 것으로 본다.
+     * 그 외 응답이나 해석할 수 없는 200 응답은 PG가 이미 승인했을 수 있으므로 결과 불명으로 처리한다.
+     */
+    private JsonNode handleResponse(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status == 200) {
+            JsonNode responseJson = readBody(response);
+            if (responseJson == null || !responseJson.isObject()) {
+                log.error("토스페이먼츠 응답 파싱 실패 - status: {}", status);
+                throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+            }
+            return responseJson;
+        }
+
+        if (isDecline(status)) {
+            JsonNode responseJson = readBody(response);
+            String errorCode = responseJson != null && responseJson.has("code")
+                    ? responseJson.get("code").asText() : "UNKNOWN";
+            String errorMessage = responseJson != null && responseJson.has("message")
+                    ? responseJson.get("message").asText() : "API 호출 실패";
+            log.error("토스페이먼츠 API 실패 - status: {}, code: {}, message: {}", status, errorCode, errorMessage);
+            throw new ServiceException(ErrorCode.PAYMENT_API_CALL_FAILED);
+        }
+
+        log.error("토스페이먼츠 API 예상하지 못한 응답 - status: {}", status);
+        throw new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT);
+    }
+
+    // 요청 타임아웃(408), 요청 과다(429)는 처리되지 않았을 뿐 거절이 아님
+    private static boolean isDecline(int status) {
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    private JsonNode readBody(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            log.warn("토스페이먼츠 응답 본문 해석 실패 - status: {}", response.statusCode(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mysite.knitly.domain.payment.repository;
+
+import com.mysite.knitly.domain.payment.entity.PaymentOutbox;
+import com.mysite.knitly.domain.payment.entity.PaymentOutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    Optional<PaymentOutbox> findByTossOrderId(String tossOrderId);
+
+    // 승인 완료 처리 시 요청 스레드와 복구 작업이 같은 행을 동시에 처리하지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM PaymentOutbox o WHERE o.outboxId = :outboxId")
+    Optional<PaymentOutbox> findByIdForUpdate(@Param("outboxId") Long outboxId);
+
+    // 여러 행을 잠글 때는 outboxId 순으로 잠가 교착 상태를 피한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM PaymentOutbox o WHERE o.outboxId IN :outboxIds ORDER BY o.outboxId ASC")
+    List<PaymentOutbox> findAllByIdForUpdate(@Param("outboxIds") Collection<Long> outboxIds);
+
+    /**
+     * 복구 대상 조회: 일정 시간 이상 같은 상태로 멈춰 있는 행
+     * (status, updated_at) 인덱스를 사용
+     */
+    @Query("""
+            SELECT o FROM PaymentOutbox o
+            WHERE o.status = :status
+            AND o.updatedAt < :updatedBefore
+            AND o.attempts < :maxAttempts
+            ORDER BY o.updatedAt ASC
+            """)
+    List<PaymentOutbox> findStuck(@Param("status") PaymentOutboxStatus status,
+                                  @Param("updatedBefore") LocalDateTime updatedBefore,
+                                  @Param("maxAttempts") int maxAttempts,
+                                  Limit limit);
+
+    // 결과를 아직 모르는 행들의 재확인 횟수를 한 번에 증가
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE PaymentOutbox o
+            SET o.attempts = o.attempts + 1, o.updatedAt = :now
+            WHERE o.outboxId IN :outboxIds
+            """)
+    int incrementAttempts(@Param("outboxIds") Collection<Long> outboxIds, @Param("now") LocalDateTime now);
+}
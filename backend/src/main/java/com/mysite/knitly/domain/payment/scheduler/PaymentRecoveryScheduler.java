@@ -0,0 +1,27 @@
+package com.mysite.knitly.domain.payment.scheduler;
+
+import com.mysite.knitly.domain.payment.service.PaymentOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 승인 결과가 확정되지 않은 결제 아웃박스 복구
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRecoveryScheduler {
+
+    private final PaymentOutboxService paymentOutboxService;
+
+    @Scheduled(fixedDelayString = "${payment.outbox.recovery-interval-ms:30000}")
+    public void recoverStuckPayments() {
+        try {
+            paymentOutboxService.recover();
+        } catch (Exception e) {
+            log.error("결제 아웃박스 복구 실패", e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.mysite.knitly.domain.payment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.order.entity.Order;
+import com.mysite.knitly.domain.order.repository.OrderRepository;
+import com.mysite.knitly.domain.order.service.OrderEventOutboxService;
+import com.mysite.knitly.domain.order.service.OrderService;
+import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
+import com.mysite.knitly.domain.payment.entity.Payment;
+import com.mysite.knitly.domain.payment.entity.PaymentMethod;
+import com.mysite.knitly.domain.payment.entity.PaymentOutbox;
+import com.mysite.knitly.domain.payment.entity.PaymentOutboxStatus;
+import com.mysite.knitly.domain.payment.entity.PaymentStatus;
+import com.mysite.knitly.domain.payment.gateway.PaymentGateway;
+import com.mysite.knitly.domain.payment.repository.PaymentOutboxRepository;
+import com.mysite.knitly.domain.payment.repository.PaymentRepository;
+import com.mysite.knitly.domain.product.product.service.PurchaseCountBuffer;
+import com.mysite.knitly.domain.product.product.service.StockReservationService;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 결제 승인 아웃박스 처리
+ *
+ * 1. begin: 검증 후 PENDING 행을 커밋 (결제 의도 기록)
+ * 2. PG 승인 요청 (트랜잭션 밖, PaymentService)
+ * 3. complete: Payment 저장 + COMPLETED 를 한 트랜잭션으로 커밋
+ *
+ * 2~3 사이에 실패해도 행이 PENDING/APPROVED 로 남으므로 recover 가 주기적으로 모아서 마무리한다.
+ * - PENDING (PG 결과 모름): 같은 idempotencyKey로 PG에 다시 승인 요청해 결과 확인
+ * - APPROVED (PG 승인됨, Payment 저장 실패): 저장된 응답으로 Payment 저장
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentOutboxService {
+
+    private final OrderRepository orderRepository;
+    private final OrderEventOutboxService orderEventOutboxService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentGateway paymentGateway;
+    private final StockReservationService stockReservationService;
+    private final PurchaseCountBuffer purchaseCountBuffer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // PG 응답 대기(읽기 타임아웃)보다 길어야 요청 스레드가 처리 중인 행을 건드리지 않는다
+    @Value("${payment.outbox.stuck-after-ms:60000}")
+    private long stuckAfterMillis;
+
+    @Value("${payment.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${payment.outbox.batch-size:100}")
+    private int batchSize;
+
+    // Payment 저장 결과 (트랜잭션 커밋 후 재고 확정, 구매수 반영에 사용)
+    private record Completion(Payment payment, String tossOrderId, Map<Long, Integer> limitedQuantities,
+                              List<Long> purchasedProductIds) {
+    }
+
+    /**
+     * 주문/금액/중복 결제 검증 후 PENDING 행 기록
+     * toss_order_id 유니크 제약으로 같은 주문의 승인 요청은 하나만 진행된다.
+     */
+    public PaymentOutbox begin(PaymentConfirmRequest request) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Order order = orderRepository.findByTossOrderId(request.orderId())
+                        .orElseThrow(() -> new ServiceException(ErrorCode.ORDER_NOT_FOUND));
+
+                long orderAmount = order.getTotalPrice().longValue();
+                if (orderAmount != request.amount()) {
+                    throw new ServiceException(ErrorCode.PAYMENT_AMOUNT_MISMATCH);
+                }
+
+                if (paymentRepository.findByOrder_OrderId(order.getOrderId()).isPresent()) {
+                    throw new ServiceException(ErrorCode.PAYMENT_ALREADY_EXISTS);
+                }
+
+                PaymentOutbox outbox = paymentOutboxRepository.findByTossOrderId(order.getTossOrderId())
+                        .orElse(null);
+                if (outbox == null) {
+                    return paymentOutboxRepository.save(PaymentOutbox.pending(
+                            order.getOrderId(), order.getTossOrderId(), request.paymentKey(), request.amount()));
+                }
+
+                switch (outbox.getStatus()) {
+                    case COMPLETED -> throw new ServiceException(ErrorCode.PAYMENT_ALREADY_EXISTS);
+                    case PENDING, APPROVED -> throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_IN_PROGRESS);
+                    case FAILED -> outbox.retry(request.paymentKey(), request.amount());
+                }
+                return outbox;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 같은 주문의 승인 요청이 동시에 들어와 다른 요청이 먼저 행을 만든 경우
+            throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_IN_PROGRESS);
+        }
+    }
+
+    // PG 승인 응답으로 Payment 저장 후 한정판매 재고 예약 확정
+    public Payment complete(Long outboxId, JsonNode response) {
+        Completion completion = transactionTemplate.execute(status -> completeInTransaction(outboxId, response));
+        afterCommit(completion);
+        return completion.payment();
+    }
+
+    // Payment 저장에 실패한 경우 PG 응답이라도 남겨 둔다 (복구 작업이 PG 호출 없이 마무리)
+    public void markApproved(Long outboxId, JsonNode response) {
+        transactionTemplate.executeWithoutResult(status ->
+                paymentOutboxRepository.findByIdForUpdate(outboxId)
+                        .ifPresent(outbox -> outbox.approve(response.toString())));
+    }
+
+    // PG가 승인을 거절한 경우 - PENDING 행을 FAILED로 바꿨을 때만 재고 예약 해제
+    public void fail(Long outboxId, String tossOrderId) {
+        Boolean failed = transactionTemplate.execute(status ->
+                paymentOutboxRepository.findByIdForUpdate(outboxId)
+                        .map(PaymentOutbox::fail)
+                        .orElse(false));
+        if (!Boolean.TRUE.equals(failed)) {
+            log.warn("[PaymentOutbox] 이미 처리된 승인 건이라 재고 예약을 유지 - tossOrderId={}", tossOrderId);
+            return;
+        }
+        stockReservationService.release(tossOrderId);
+    }
+
+    /**
+     * 멈춰 있는 아웃박스 행 복구 (스케줄러에서 호출)
+     */
+    public void recover() {
+        recoverPending();
+        recoverApproved();
+    }
+
+    /**
+     * PENDING: PG 결과를 모르는 행
+     * 같은 idempotencyKey로 다시 승인 요청하면 PG는 처음 요청의 결과를 돌려주므로 이중 승인 없이 결과를 확인할 수 있다.
+     * 승인된 응답과 재확인 횟수는 각각 한 트랜잭션으로 모아서 반영한다.
+     */
+    private void recoverPending() {
+        LocalDateTime stuckBefore = LocalDateTime.now().minus(Duration.ofMillis(stuckAfterMillis));
+        List<PaymentOutbox> stuck = paymentOutboxRepository.findStuck(
+                PaymentOutboxStatus.PENDING, stuckBefore, maxAttempts, Limit.of(batchSize));
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        Map<Long, JsonNode> approved = new LinkedHashMap<>();
+        List<Long> unknown = new ArrayList<>();
+        for (PaymentOutbox outbox : stuck) {
+            PaymentConfirmRequest request = new PaymentConfirmRequest(
+                    outbox.getPaymentKey(), outbox.getTossOrderId(), outbox.getAmount());
+            try {
+                approved.put(outbox.getOutboxId(), paymentGateway.confirm(request, outbox.getIdempotencyKey()));
+            } catch (ServiceException e) {
+                if (e.getErrorCode() == ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE) {
+                    log.warn("[PaymentOutbox] PG 사용 불가 - 다음 주기에 재시도");
+                    break;
+                }
+                if (e.getErrorCode() == ErrorCode.PAYMENT_API_CALL_FAILED) {
+                    fail(outbox.getOutboxId(), outbox.getTossOrderId());
+                    continue;
+                }
+                unknown.add(outbox.getOutboxId());
+                if (outbox.getAttempts() + 1 >= maxAttempts) {
+                    log.error("[PaymentOutbox] 승인 결과 확인 불가, 수동 확인 필요 - tossOrderId={}, paymentKey={}",
+                            outbox.getTossOrderId(), outbox.getPaymentKey());
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!approved.isEmpty()) {
+                // 요청 스레드가 그 사이 완료한 행은 approve가 건너뜀
+                paymentOutboxRepository.findAllByIdForUpdate(approved.keySet())
+                        .forEach(outbox -> outbox.approve(approved.get(outbox.getOutboxId()).toString()));
+            }
+            if (!unknown.isEmpty()) {
+                paymentOutboxRepository.incrementAttempts(unknown, LocalDateTime.now());
+            }
+        });
+        log.info("[PaymentOutbox] PENDING 복구 - 대상: {}, 승인 확인: {}, 결과 모름: {}",
+                stuck.size(), approved.size(), unknown.size());
+    }
+
+    /**
+     * APPROVED: PG 승인은 끝났지만 Payment가 없는 행
+     * 한 트랜잭션으로 모아서 저장하고, 실패하면 문제 행만 건너뛰도록 건별로 다시 처리한다.
+     */
+    private void recoverApproved() {
+        List<PaymentOutbox> approved = paymentOutboxRepository.findStuck(
+                PaymentOutboxStatus.APPROVED, LocalDateTime.now(), maxAttempts, Limit.of(batchSize));
+        if (approved.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Completion> completions = transactionTemplate.execute(status -> approved.stream()
+                    .map(outbox -> completeInTransaction(outbox.getOutboxId(), readResponse(outbox)))
+                    .toList());
+            completions.forEach(this::afterCommit);
+            log.info("[PaymentOutbox] APPROVED 복구 - {} 건", completions.size());
+        } catch (Exception e) {
+            log.warn("[PaymentOutbox] APPROVED 일괄 복구 실패, 건별 처리", e);
+            for (PaymentOutbox outbox : approved) {
+                try {
+                    complete(outbox.getOutboxId(), readResponse(outbox));
+                } catch (Exception ex) {
+                    log.error("[PaymentOutbox] Payment 저장 실패 - tossOrderId={}", outbox.getTossOrderId(), ex);
+                    transactionTemplate.executeWithoutResult(status -> paymentOutboxRepository
+                            .incrementAttempts(List.of(outbox.getOutboxId()), LocalDateTime.now()));
+                }
+            }
+        }
+    }
+
+    // 이미 완료된 행이면 기존 Payment를 돌려주고 재고는 다시 확정하지 않는다
+    private Completion completeInTransaction(Long outboxId, JsonNode response) {
+        PaymentOutbox outbox = paymentOutboxRepository.findByIdForUpdate(outboxId)
+                .orElseThrow(() -> new ServiceException(ErrorCode.PAYMENT_NOT_FOUND));
+
+        if (outbox.getStatus() == PaymentOutboxStatus.COMPLETED) {
+            Payment payment = paymentRepository.findByOrder_OrderId(outbox.getOrderId())
+                    .orElseThrow(() -> new ServiceException(ErrorCode.PAYMENT_NOT_FOUND));
+            return new Completion(payment, outbox.getTossOrderId(), Map.of(), List.of());
+        }
+
+        Order order = orderRepository.findById(outbox.getOrderId())
+                .orElseThrow(() -> new ServiceException(ErrorCode.ORDER_NOT_FOUND));
+        Payment payment = paymentRepository.save(createPaymentFromTossResponse(order, response));
+        outbox.complete();
+        if (payment.isCompleted()) {
+            // 주문 확인 메일 이벤트 - Payment와 같은 트랜잭션으로 기록
+            orderEventOutboxService.recordOrderCompleted(order);
+        }
+
+        List<Long> purchasedProductIds = payment.isCompleted()
+                ? order.getOrderItems().stream().map(item -> item.getProduct().getProductId()).toList()
+                : List.of();
+        return new Completion(payment, outbox.getTossOrderId(),
+                OrderService.limitedQuantities(order.getOrderItems()), purchasedProductIds);
+    }
+
+    private void afterCommit(Completion completion) {
+        commitStock(completion);
+        // 결제 완료된 주문만 구매수에 반영 (버퍼에 모아 주기적으로 DB / 인기순 랭킹에 반영)
+        completion.purchasedProductIds().forEach(purchaseCountBuffer::increment);
+    }
+
+    // Payment는 이미 커밋된 뒤라 실패해도 결제 결과를 바꾸지 않고 로그만 남긴다
+    private void commitStock(Completion completion) {
+        try {
+            stockReservationService.commit(completion.tossOrderId(), completion.limitedQuantities());
+        } catch (Exception e) {
+            log.error("[PaymentOutbox] 재고 예약 확정 실패, 수동 확인 필요 - tossOrderId={}, items={}",
+                    completion.tossOrderId(), completion.limitedQuantities(), e);
+        }
+    }
+
+    private JsonNode readResponse(PaymentOutbox outbox) {
+        try {
+            return objectMapper.readTree(outbox.getResponse());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("PG 응답 파싱 실패 - outboxId=" + outbox.getOutboxId(), e);
+        }
+    }
+
+    // 토스 응답으로부터 Payment 엔티티 생성
+    private Payment createPaymentFromTossResponse(Order order, JsonNode tossResponse) {
+        String method = tossResponse.get("method").asText();
+        String status = tossResponse.get("status").asText();
+
+        Payment payment = Payment.builder()
+                .tossPaymentKey(tossResponse.get("paymentKey").asText())
+                .tossOrderId(tossResponse.get("orderId").asText())
+                .mid(tossResponse.has("mId") ? tossResponse.get("mId").asText() : null)
+                .order(order)
+                .buyer(order.getUser())
+                .totalAmount(tossResponse.get("totalAmount").asLong())
+                .paymentMethod(PaymentMethod.fromString(method))
+                .paymentStatus(PaymentStatus.fromString(status))
+                .build();
+
+        if (tossResponse.has("approvedAt")) {
+            String approvedAtStr = tossResponse.get("approvedAt").asText();
+            LocalDateTime approvedAt = LocalDateTime.parse(approvedAtStr, DateTimeFormatter.ISO_DATE_TIME);
+            payment.approve(approvedAt);
+        }
+
+        return payment;
+    }
+}
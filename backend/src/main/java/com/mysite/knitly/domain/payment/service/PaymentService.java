@@ -1,95 +1,83 @@
 package com.mysite.knitly.domain.payment.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mysite.knitly.domain.order.entity.Order;
-import com.mysite.knitly.domain.order.repository.OrderRepository;
+import com.mysite.knitly.domain.payment.gateway.PaymentGateway;
 import com.mysite.knitly.domain.payment.dto.*;
 import com.mysite.knitly.domain.payment.entity.Payment;
-import com.mysite.knitly.domain.payment.entity.PaymentMethod;
-import com.mysite.knitly.domain.payment.entity.PaymentStatus;
+import com.mysite.knitly.domain.payment.entity.PaymentOutbox;
 import com.mysite.knitly.domain.payment.repository.PaymentRepository;
 import com.mysite.knitly.domain.user.entity.User;
 import com.mysite.knitly.global.exception.ErrorCode;
 import com.mysite.knitly.global.exception.ServiceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
-import java.util.HashMap;
-import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
-    private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
-    private final ObjectMapper objectMapper;
-
-    @Value("${payment.toss.secret-key}")
-    private String tossSecretKey;
-
-    private static final String TOSS_PAYMENT_CONFIRM_URL = "https://api.tosspayments.com/v1/payments/confirm";
-    private static final String TOSS_PAYMENT_CANCEL_URL = "https://api.tosspayments.com/v1/payments/%s/cancel";
-
-    // 결제 승인
-    @Transactional
+    private final PaymentGateway paymentGateway;
+    private final PaymentOutboxService paymentOutboxService;
+
+    /**
+     * 결제 승인 (2단계 + 아웃박스)
+     * 1. 검증 후 결제 의도(PENDING)를 먼저 커밋
+     * 2. 토스 API 호출은 트랜잭션 밖에서 (PG 응답이 느려도 DB 커넥션을 잡고 있지 않음)
+     * 3. Payment 저장과 아웃박스 완료를 한 트랜잭션으로 커밋
+     * 2~3 중 실패해 결과가 불확실하면 아웃박스 행이 남아 PaymentRecoveryScheduler가 마무리한다.
+     */
     public PaymentConfirmResponse confirmPayment(PaymentConfirmRequest request) {
-        // 1. 주문 정보 조회 및 검증 (tossOrderId로 조회)
-        Order order = orderRepository.findByTossOrderId(request.orderId())
-                .orElseThrow(() -> new ServiceException(ErrorCode.ORDER_NOT_FOUND));
+        // 1. 주문 조회, 금액 검증, 중복 결제 확인 후 결제 의도 기록
+        PaymentOutbox outbox = paymentOutboxService.begin(request);
 
-        // 2. 주문 금액 검증
-        long orderAmount = order.getTotalPrice().longValue();
-        if (orderAmount != request.amount()) {
-            throw new ServiceException(ErrorCode.PAYMENT_AMOUNT_MISMATCH);
-        }
-
-        // 3. 중복 결제 방지
-        if (paymentRepository.findByOrder_OrderId(order.getOrderId()).isPresent()) {
-            throw new ServiceException(ErrorCode.PAYMENT_ALREADY_EXISTS);
+        // 2. 토스페이먼츠 결제 승인 API 호출 (트랜잭션 밖)
+        JsonNode tossResponse;
+        try {
+            tossResponse = paymentGateway.confirm(request, outbox.getIdempotencyKey());
+        } catch (ServiceException e) {
+            if (e.getErrorCode() == ErrorCode.PAYMENT_API_CALL_FAILED
+                    || e.getErrorCode() == ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE) {
+                // PG가 거절했거나 요청을 보내지 않음 - 승인되지 않은 것이 확실하므로 재고 예약 해제
+                paymentOutboxService.fail(outbox.getOutboxId(), outbox.getTossOrderId());
+                throw e;
+            }
+            // 승인됐는지 알 수 없음 - 재고 예약은 유지하고 복구 작업이 결과를 확인
+            log.warn("결제 승인 결과 불명 - orderId: {}, code: {}", request.orderId(), e.getErrorCode());
+            throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_PENDING);
         }
 
-        // 4. 토스페이먼츠 결제 승인 API 호출
+        // 3. Payment 저장 + 아웃박스 완료, 한정판매 재고 예약 확정 (DB 재고는 배치로 반영)
+        Payment savedPayment;
         try {
-            JsonNode tossResponse = callTossPaymentConfirmApi(request);
-
-            // 5. Payment 엔티티 생성 및 저장
-            Payment payment = createPaymentFromTossResponse(order, tossResponse);
-            Payment savedPayment = paymentRepository.save(payment);
-
-            // 6. 응답 데이터 생성
-            PaymentConfirmResponse response = buildPaymentConfirmResponse(savedPayment, tossResponse);
+            savedPayment = paymentOutboxService.complete(outbox.getOutboxId(), tossResponse);
+        } catch (Exception e) {
+            // PG 승인은 끝났으므로 재고를 풀지 않고 응답을 남겨 복구 작업이 Payment를 저장하게 한다
+            log.error("결제 승인 후 저장 중 오류 발생 - orderId: {}", request.orderId(), e);
+            try {
+                paymentOutboxService.markApproved(outbox.getOutboxId(), tossResponse);
+            } catch (Exception ex) {
+                log.error("결제 승인 응답 기록 실패 - orderId: {}", request.orderId(), ex);
+            }
+            throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_PENDING);
+        }
 
-            log.info("결제 승인 성공 - orderId: {}, paymentKey: {}, amount: {}",
-                    request.orderId(), response.paymentKey(), response.totalAmount());
+        // 4. 응답 데이터 생성 (Payment는 이미 커밋됨)
+        PaymentConfirmResponse response = buildPaymentConfirmResponse(savedPayment, tossResponse);
 
-            return response;
+        log.info("결제 승인 성공 - orderId: {}, paymentKey: {}, amount: {}",
+                request.orderId(), response.paymentKey(), response.totalAmount());
 
-        } catch (IOException e) {
-            log.error("토스페이먼츠 API 호출 실패", e);
-            throw new ServiceException(ErrorCode.PAYMENT_API_CALL_FAILED);
-        } catch (Exception e) {
-            log.error("결제 승인 처리 중 오류 발생", e);
-            throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_FAILED);
-        }
+        return response;
     }
 
-    // 결제 취소
-    @Transactional
+    // 결제 취소 (토스 API 호출은 트랜잭션 밖에서, 취소 상태 저장만 트랜잭션으로 처리)
     public PaymentCancelResponse cancelPayment(Long paymentId, PaymentCancelRequest request) {
         // 1. 결제 정보 조회
         Payment payment = paymentRepository.findById(paymentId)
@@ -102,124 +90,32 @@ public class PaymentService {
 
         // 3. 토스페이먼츠 결제 취소 API 호출
         try {
-            callTossPaymentCancelApi(payment.getTossPaymentKey(), request.cancelReason());
-
-            // 4. 취소 처리
-            payment.cancel(request.cancelReason());
-            paymentRepository.save(payment);
-
-            // 5. 응답 생성
-            PaymentCancelResponse response = PaymentCancelResponse.builder()
-                    .paymentId(payment.getPaymentId())
-                    .paymentKey(payment.getTossPaymentKey())
-                    .orderId(payment.getTossOrderId())
-                    .status(payment.getPaymentStatus())
-                    .cancelAmount(payment.getTotalAmount())
-                    .cancelReason(request.cancelReason())
-                    .canceledAt(payment.getCanceledAt())
-                    .build();
-
-            log.info("결제 취소 성공 - paymentId: {}, amount: {}", paymentId, payment.getTotalAmount());
-
-            return response;
-
-        } catch (IOException e) {
-            log.error("토스페이먼츠 취소 API 호출 실패", e);
-            throw new ServiceException(ErrorCode.PAYMENT_CANCEL_API_FAILED);
-        }
-    }
-
-    // 토스페이먼츠 결제 승인 API 호출
-    private JsonNode callTossPaymentConfirmApi(PaymentConfirmRequest request) throws IOException {
-        String authorization = createBasicAuthHeader(tossSecretKey);
-        String requestBody = objectMapper.writeValueAsString(request);
-
-        URL url = new URL(TOSS_PAYMENT_CONFIRM_URL);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestProperty("Authorization", authorization);
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestMethod("POST");
-        connection.setDoOutput(true);
-
-        try (OutputStream os = connection.getOutputStream()) {
-            os.write(requestBody.getBytes(StandardCharsets.UTF_8));
-        }
-
-        return handleTossApiResponse(connection);
-    }
-
-    // 토스페이먼츠 결제 취소 API 호출
-    private JsonNode callTossPaymentCancelApi(String paymentKey, String cancelReason) throws IOException {
-        String authorization = createBasicAuthHeader(tossSecretKey);
-
-        Map<String, String> requestBody = new HashMap<>();
-        requestBody.put("cancelReason", cancelReason);
-        String requestBodyJson = objectMapper.writeValueAsString(requestBody);
-
-        URL url = new URL(String.format(TOSS_PAYMENT_CANCEL_URL, paymentKey));
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestProperty("Authorization", authorization);
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestMethod("POST");
-        connection.setDoOutput(true);
-
-        try (OutputStream os = connection.getOutputStream()) {
-            os.write(requestBodyJson.getBytes(StandardCharsets.UTF_8));
-        }
-
-        return handleTossApiResponse(connection);
-    }
-
-    // 토스 API 응답 처리
-    private JsonNode handleTossApiResponse(HttpURLConnection connection) throws IOException {
-        int responseCode = connection.getResponseCode();
-        boolean isSuccess = responseCode == 200;
-
-        try (InputStream is = isSuccess ? connection.getInputStream() : connection.getErrorStream()) {
-            JsonNode responseJson = objectMapper.readTree(is);
-
-            if (!isSuccess) {
-                String errorCode = responseJson.has("code") ? responseJson.get("code").asText() : "UNKNOWN";
-                String errorMessage = responseJson.has("message") ? responseJson.get("message").asText() : "API 호출 실패";
-                log.error("토스페이먼츠 API 실패 - code: {}, message: {}", errorCode, errorMessage);
-                throw new ServiceException(ErrorCode.PAYMENT_API_CALL_FAILED);
+            paymentGateway.cancel(payment.getTossPaymentKey(), request.cancelReason());
+        } catch (ServiceException e) {
+            if (e.getErrorCode() == ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE) {
+                throw e;
             }
-
-            return responseJson;
+            throw new ServiceException(ErrorCode.PAYMENT_CANCEL_API_FAILED);
         }
-    }
-
-    // Basic 인증 헤더 생성
-    private String createBasicAuthHeader(String secretKey) {
-        String credentials = secretKey + ":";
-        String encodedCredentials = Base64.getEncoder()
-                .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-        return "Basic " + encodedCredentials;
-    }
 
-    // 토스 응답으로부터 Payment 엔티티 생성
-    private Payment createPaymentFromTossResponse(Order order, JsonNode tossResponse) {
-        String method = tossResponse.get("method").asText();
-        String status = tossResponse.get("status").asText();
+        // 4. 취소 처리
+        payment.cancel(request.cancelReason());
+        paymentRepository.save(payment);
 
-        Payment payment = Payment.builder()
-                .tossPaymentKey(tossResponse.get("paymentKey").asText())
-                .tossOrderId(tossResponse.get("orderId").asText())
-                .mid(tossResponse.has("mId") ? tossResponse.get("mId").asText() : null)
-                .order(order)
-                .buyer(order.getUser())
-                .totalAmount(tossResponse.get("totalAmount").asLong())
-                .paymentMethod(PaymentMethod.fromString(method))
-                .paymentStatus(PaymentStatus.fromString(status))
+        // 5. 응답 생성
+        PaymentCancelResponse response = PaymentCancelResponse.builder()
+                .paymentId(payment.getPaymentId())
+                .paymentKey(payment.getTossPaymentKey())
+                .orderId(payment.getTossOrderId())
+                .status(payment.getPaymentStatus())
+                .cancelAmount(payment.getTotalAmount())
+                .cancelReason(request.cancelReason())
+                .canceledAt(payment.getCanceledAt())
                 .build();
 
-        if (tossResponse.has("approvedAt")) {
-            String approvedAtStr = tossResponse.get("approvedAt").asText();
-            LocalDateTime approvedAt = LocalDateTime.parse(approvedAtStr, DateTimeFormatter.ISO_DATE_TIME);
-            payment.approve(approvedAt);
-        }
+        log.info("결제 취소 성공 - paymentId: {}, amount: {}", paymentId, payment.getTotalAmount());
 
-        return payment;
+        return response;
     }
 
     // PaymentConfirmResponse 생성
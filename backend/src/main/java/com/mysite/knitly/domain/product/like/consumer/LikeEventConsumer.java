@@ -1,100 +1,90 @@
 package com.mysite.knitly.domain.product.like.consumer;
 
 import com.mysite.knitly.domain.product.like.dto.LikeEventRequest;
-import com.mysite.knitly.domain.product.like.entity.ProductLike;
 import com.mysite.knitly.domain.product.like.entity.ProductLikeId;
-import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
-import com.mysite.knitly.domain.product.product.entity.Product;
-import com.mysite.knitly.domain.product.product.repository.ProductRepository;
-import com.mysite.knitly.domain.user.entity.User;
-import com.mysite.knitly.domain.user.repository.UserRepository;
-import com.mysite.knitly.global.exception.ErrorCode;
-import com.mysite.knitly.global.exception.ServiceException;
+import com.mysite.knitly.domain.product.like.repository.ProductLikeBatchRepository;
+import com.mysite.knitly.global.config.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.AmqpRejectAndDontRequeueException;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 찜 추가/삭제 이벤트 배치 소비자
+ *
+ * 두 큐를 소비자 하나가 함께 받아 최대 N건(또는 T ms)씩 모아서 처리한다.
+ * - 같은 (user, product)에 대한 이벤트는 마지막 이벤트만 남긴다 (추가 → 삭제면 삭제만)
+ *   두 큐의 메시지는 섞여서 도착하므로 도착 순서가 아니라 이벤트의 sequence(Redis 반영 순서)로 고른다
+ * - 실제로 바뀌는 행만 골라 multi-row INSERT IGNORE / DELETE 한 번씩
+ * 찜 수는 Redis가 기준이고 DB에는 ProductLikeService.compactLikeCounts 가 따로 반영하므로 상품 행은 건드리지 않는다.
+ * 소비자가 하나뿐이라 조회 후 반영 사이에 다른 소비자가 같은 행을 바꾸지 않는다.
+ *
+ * 반영에 실패하면 Redis를 되돌리지 않고 배치를 다시 시도한다 (RabbitMQConfig의 재시도 설정).
+ * Redis가 찜의 기준이고 INSERT IGNORE / DELETE 는 여러 번 실행해도 결과가 같으므로,
+ * 일부만 되돌리거나 DLQ로 버리면 Redis와 DB가 어긋난다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class LikeEventConsumer {
 
-    private final ProductLikeRepository productLikeRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-
-    private static final String LIKE_QUEUE_NAME = "like.add.queue";
-    private static final String DISLIKE_QUEUE_NAME = "like.delete.queue";
+    private final ProductLikeBatchRepository productLikeBatchRepository;
 
     @Transactional
-    @RabbitListener(queues = LIKE_QUEUE_NAME)
-    public void handleLikeEvent(LikeEventRequest eventDto) {
-        String redisKey = "likes:product:" + eventDto.productId();
-        String userKey = eventDto.userId().toString();
+    @RabbitListener(queues = {RabbitMQConfig.LIKE_ADD_QUEUE, RabbitMQConfig.LIKE_DELETE_QUEUE},
+            containerFactory = RabbitMQConfig.LIKE_BATCH_CONTAINER_FACTORY)
+    public void handleLikeEvents(List<Message<LikeEventRequest>> messages) {
+        Map<ProductLikeId, Boolean> liked = coalesce(messages);
 
         try {
-            User user = userRepository.findById(eventDto.userId())
-                    .orElseThrow(() -> new ServiceException(ErrorCode.USER_NOT_FOUND));
-
-            Product product = productRepository.findById(eventDto.productId())
-                    .orElseThrow(() -> new ServiceException(ErrorCode.PRODUCT_NOT_FOUND));
-
-            ProductLikeId productLikeId = new ProductLikeId(user.getUserId(), product.getProductId());
-
-            if (productLikeRepository.existsById(productLikeId)) {
-                log.info("Like already exists in DB. Skipping: {}", productLikeId);
-                return;
-            }
-
-            ProductLike productLike = ProductLike.builder()
-                    .user(user)
-                    .product(product)
-                    .build();
-
-            product.increaseLikeCount();
-
-            // 5. DB 저장
-            productLikeRepository.save(productLike);
-            log.info("Successfully saved like to DB: {}", productLikeId);
-
-        } catch (Exception e) {
-            log.error("Failed to save like to DB. Rolling back Redis cache for {}.", redisKey, e);
-
-            redisTemplate.opsForSet().remove(redisKey, userKey);
-
-            throw new AmqpRejectAndDontRequeueException("DB save failed, cache rolled back.", e);
+            Set<ProductLikeId> existing = productLikeBatchRepository.findExisting(liked.keySet());
+
+            List<ProductLikeId> toInsert = liked.entrySet().stream()
+                    .filter(e -> e.getValue() && !existing.contains(e.getKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            List<ProductLikeId> toDelete = liked.entrySet().stream()
+                    .filter(e -> !e.getValue() && existing.contains(e.getKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            productLikeBatchRepository.insertIgnore(toInsert);
+            productLikeBatchRepository.delete(toDelete);
+
+            log.info("[Like] 배치 반영 - 메시지: {}, 대상: {}, 추가: {}, 삭제: {}",
+                    messages.size(), liked.size(), toInsert.size(), toDelete.size());
+
+        } catch (RuntimeException e) {
+            log.error("[Like] 배치 반영 실패, 배치를 다시 시도 - 메시지: {}", messages.size(), e);
+            throw e;
         }
     }
 
-    @Transactional
-    @RabbitListener(queues = DISLIKE_QUEUE_NAME)
-    public void handleDislikeEvent(LikeEventRequest eventDto) {
-        log.info("[handleDislikeEvent] received event: {}", eventDto);
-        ProductLikeId productLikeId = new ProductLikeId(eventDto.userId(), eventDto.productId());
-
-        try {
-            if (productLikeRepository.existsById(productLikeId)) {
-
-                Product product = productRepository.findById(eventDto.productId())
-                        .orElseThrow(() -> new ServiceException(ErrorCode.PRODUCT_NOT_FOUND));
-
-                product.decreaseLikeCount();
-
-                productLikeRepository.deleteById(productLikeId);
-
-                log.info("[handleDislikeEvent] ProductLike deleted and count decremented: {}", productLikeId);
-
-            } else {
-                log.warn("[handleDislikeEvent] ProductLike not found in DB, skipping: {}", productLikeId);
+    // (user, product)별로 sequence가 가장 큰 이벤트의 상태만 남긴다 (true: 찜, false: 찜 해제)
+    // sequence가 같으면 (순서 정보 없는 이벤트) 나중에 도착한 쪽을 따른다
+    private Map<ProductLikeId, Boolean> coalesce(List<Message<LikeEventRequest>> messages) {
+        Map<ProductLikeId, Boolean> liked = new LinkedHashMap<>();
+        Map<ProductLikeId, Long> sequences = new HashMap<>();
+        for (Message<LikeEventRequest> message : messages) {
+            LikeEventRequest event = message.getPayload();
+            ProductLikeId id = new ProductLikeId(event.userId(), event.productId());
+            Long latest = sequences.get(id);
+            if (latest != null && event.sequence() < latest) {
+                continue;
             }
-        } catch (Exception e) {
-            log.error("[handleDislikeEvent] Error processing dislike event: {}", eventDto, e);
-            throw new AmqpRejectAndDontRequeueException("DB operation failed during dislike.", e);
+            String queue = message.getHeaders().get(AmqpHeaders.CONSUMER_QUEUE, String.class);
+            liked.put(id, RabbitMQConfig.LIKE_ADD_QUEUE.equals(queue));
+            sequences.put(id, event.sequence());
         }
+        return liked;
     }
-}
\ No newline at end of file
+}
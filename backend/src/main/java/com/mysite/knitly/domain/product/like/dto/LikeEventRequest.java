@@ -2,4 +2,9 @@ package com.mysite.knitly.domain.product.like.dto;
 
 import java.io.Serializable;
 
-public record LikeEventRequest(Long userId, Long productId) implements Serializable {}
+/**
+ * 찜 추가/삭제 이벤트
+ * sequence: Redis 찜 집합에 반영된 순서 (전역 증가값). 추가/삭제 큐가 달라 도착 순서가 클릭 순서와 다를 수 있으므로
+ * 소비자는 (user, product)별로 sequence가 가장 큰 이벤트를 최종 상태로 본다. 0이면 순서 정보 없음.
+ */
+public record LikeEventRequest(Long userId, Long productId, long sequence) implements Serializable {}
@@ -0,0 +1,71 @@
+package com.mysite.knitly.domain.product.like.repository;
+
+import com.mysite.knitly.domain.product.like.entity.ProductLikeId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 찜 배치 반영용 JDBC 저장소
+ * 배치마다 (user_id, product_id) 목록을 multi-row SQL 한 문장으로 처리한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductLikeBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 이미 DB에 있는 찜 조회
+    public Set<ProductLikeId> findExisting(Collection<ProductLikeId> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        Set<ProductLikeId> existing = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT user_id, product_id FROM product_likes WHERE (user_id, product_id) IN (" + rowPlaceholders(ids.size()) + ")",
+                rs -> {
+                    existing.add(new ProductLikeId(rs.getLong("user_id"), rs.getLong("product_id")));
+                },
+                toArgs(ids));
+        return existing;
+    }
+
+    // 동시에 다른 경로로 들어간 찜이 있어도 실패하지 않도록 INSERT IGNORE
+    public int insertIgnore(Collection<ProductLikeId> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO product_likes (user_id, product_id) VALUES " + rowPlaceholders(ids.size()),
+                toArgs(ids));
+    }
+
+    public int delete(Collection<ProductLikeId> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM product_likes WHERE (user_id, product_id) IN (" + rowPlaceholders(ids.size()) + ")",
+                toArgs(ids));
+    }
+
+    private static String rowPlaceholders(int rows) {
+        return String.join(", ", Collections.nCopies(rows, "(?, ?)"));
+    }
+
+    private static Object[] toArgs(Collection<ProductLikeId> ids) {
+        List<Object> args = new ArrayList<>(ids.size() * 2);
+        for (ProductLikeId id : ids) {
+            args.add(id.getUser());
+            args.add(id.getProduct());
+        }
+        return args.toArray();
+    }
+}
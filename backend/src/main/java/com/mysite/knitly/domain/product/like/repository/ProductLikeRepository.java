@@ -27,4 +27,12 @@ public interface ProductLikeRepository extends JpaRepository<ProductLike, Produc
     Set<Long> findLikedProductIdsByUserId(@Param("userId") Long userId, @Param("productIds") List<Long> productIds);
 
     boolean existsByUser_UserIdAndProduct_ProductId(Long userId, Long productId);
+
+    // Redis 찜 집합 적재용
+    @Query("SELECT pl.user.userId FROM ProductLike pl WHERE pl.product.productId = :productId")
+    List<Long> findUserIdsByProductId(@Param("productId") Long productId);
+
+    // Redis 사용자 찜 집합 적재용
+    @Query("SELECT pl.product.productId FROM ProductLike pl WHERE pl.user.userId = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,27 @@
+package com.mysite.knitly.domain.product.like.scheduler;
+
+import com.mysite.knitly.domain.product.like.service.ProductLikeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 기준 찜 수를 products.like_count 에 주기적으로 반영
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LikeCountCompactionScheduler {
+
+    private final ProductLikeService productLikeService;
+
+    @Scheduled(fixedDelayString = "${like.count.compact-interval-ms:60000}")
+    public void compactLikeCounts() {
+        try {
+            productLikeService.compactLikeCounts();
+        } catch (Exception e) {
+            log.error("찜 수 DB 반영 실패", e);
+        }
+    }
+}
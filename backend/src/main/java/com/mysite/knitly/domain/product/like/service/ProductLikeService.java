@@ -2,13 +2,44 @@ package com.mysite.knitly.domain.product.like.service;
 
 import com.mysite.knitly.domain.product.like.dto.LikeEventRequest;
 import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
+import com.mysite.knitly.domain.product.product.repository.ProductLikeCountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 찜 추가/삭제 + 찜 수
+ *
+ * 찜 수는 Redis 집합(likes:product:{productId})의 SCARD가 기준이다.
+ * - 집합은 처음 쓸 때 DB의 찜 목록으로 한 번 채우고 적재 표시(:loaded)를 남긴다
+ * - 찜이 바뀐 상품은 likes:dirty 에 모아 두고, compactLikeCounts 가 주기적으로
+ *   SCARD 값을 products.like_count 에 일괄 반영한다 (찜 요청이 상품 행을 잠그지 않음)
+ *
+ * 찜 추가/삭제는 반영할 때마다 likes:seq 를 증가시켜 이벤트에 담는다.
+ * 추가/삭제 이벤트가 서로 다른 큐로 가므로, 소비자는 이 값으로 (user, product)별 마지막 상태를 고른다.
+ *
+ * 사용자별 찜 집합(likes:user:{userId})은 목록의 찜 여부 표시용 인덱스다.
+ * - 찜 추가/삭제 때 상품 집합과 같은 스크립트에서 함께 갱신한다
+ * - 처음 조회하거나 쓸 때 DB에서 채우고, 한동안 쓰지 않으면 만료된다 (다시 조회 시 재적재)
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,33 +47,267 @@ public class ProductLikeService {
     private final RedisTemplate<String, String> redisTemplate;
     private final RabbitTemplate rabbitTemplate;
     private final ProductLikeRepository productLikeRepository;
+    private final ProductLikeCountRepository productLikeCountRepository;
 
     private static final String EXCHANGE_NAME = "like.exchange";
 
     private static final String LIKE_ROUTING_KEY = "like.add.routingkey";
     private static final String DISLIKE_ROUTING_KEY = "like.delete.routingkey";
 
-    public void addLike(Long userId, Long productId) {
-        String redisKey = "likes:product:" + productId;
-        String userKey = userId.toString();
+    private static final String PRODUCT_LIKES_KEY_PREFIX = "likes:product:";
+    private static final String LOADED_SUFFIX = ":loaded";
+    private static final String DIRTY_KEY = "likes:dirty";
+    private static final String SEQUENCE_KEY = "likes:seq";
+    private static final String USER_LIKES_KEY_PREFIX = "likes:user:";
+    private static final Duration USER_LIKES_TTL = Duration.ofDays(7);
+    private static final int COMPACT_BATCH_SIZE = 1000;
+    private static final int LOAD_RETRIES = 3;
+
+    private static final long PRODUCT_NOT_LOADED = -1;
+    private static final long USER_NOT_LOADED = -2;
+
+    /**
+     * 상품/사용자 찜 집합이 모두 적재된 경우에만 SADD/SREM 하고, 상품 집합이 바뀌었으면 dirty 등록
+     * KEYS[1]: 상품 찜 집합, KEYS[2]: 상품 적재 표시, KEYS[3]: dirty 집합, KEYS[4]: 사용자 찜 집합, KEYS[5]: 사용자 적재 표시,
+     * KEYS[6]: 반영 순서 카운터
+     * ARGV[1]: userId, ARGV[2]: SADD | SREM, ARGV[3]: productId, ARGV[4]: 사용자 집합 TTL(초)
+     * 반환: 반영 순서(1 이상), -1 상품 집합 미적재, -2 사용자 집합 미적재
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return -1
+            end
+            if redis.call('EXISTS', KEYS[5]) == 0 then
+                return -2
+            end
+            local changed = redis.call(ARGV[2], KEYS[1], ARGV[1])
+            if changed == 1 then
+                redis.call('SADD', KEYS[3], ARGV[3])
+            end
+            redis.call(ARGV[2], KEYS[4], ARGV[3])
+            redis.call('EXPIRE', KEYS[4], ARGV[4])
+            redis.call('EXPIRE', KEYS[5], ARGV[4])
+            return redis.call('INCR', KEYS[6])
+            """, Long.class);
+
+    /**
+     * 적재 표시가 없을 때만 DB 찜 목록으로 상품 찜 집합을 채우고, 같은 호출에서 적재 표시와 dirty 등록
+     * 적재 표시가 생기기 전에는 APPLY_SCRIPT가 반영하지 않으므로, 채우는 도중 끼어든 찜 변경이 DB 목록에 덮이지 않는다.
+     * 동시에 여러 요청이 적재해도 먼저 실행된 스크립트만 반영된다.
+     * KEYS[1]: 상품 찜 집합, KEYS[2]: 상품 적재 표시, KEYS[3]: dirty 집합
+     * ARGV[1]: productId, ARGV[2..]: 찜한 userId 목록
+     * 반환: 1 적재함, 0 이미 적재됨
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return 0
+            end
+            for i = 2, #ARGV, 5000 do
+                redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV)))
+            end
+            redis.call('SET', KEYS[2], '1')
+            redis.call('SADD', KEYS[3], ARGV[1])
+            return 1
+            """, Long.class);
 
-        redisTemplate.opsForSet().add(redisKey, userKey);
-        LikeEventRequest eventDto = new LikeEventRequest(userId, productId);
+    /**
+     * 적재 표시가 없을 때만 DB 찜 목록으로 사용자 찜 집합을 채우고, 같은 호출에서 적재 표시 (LOAD_SCRIPT와 같은 방식)
+     * KEYS[1]: 사용자 찜 집합, KEYS[2]: 사용자 적재 표시
+     * ARGV[1]: TTL(초), ARGV[2..]: 찜한 productId 목록
+     * 반환: 1 적재함, 0 이미 적재됨
+     */
+    private static final RedisScript<Long> LOAD_USER_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return 0
+            end
+            for i = 2, #ARGV, 5000 do
+                redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV)))
+            end
+            if #ARGV > 1 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * 사용자 찜 집합에서 상품들의 찜 여부를 한 번에 확인 (SMISMEMBER)
+     * KEYS[1]: 사용자 찜 집합, KEYS[2]: 사용자 적재 표시, ARGV: productId 목록
+     * 반환: 미적재면 nil, 아니면 ARGV 순서대로 1/0
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> IS_LIKED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return false
+            end
+            return redis.call('SMISMEMBER', KEYS[1], unpack(ARGV))
+            """, List.class);
+
+    public void addLike(Long userId, Long productId) {
+        long sequence = applyToRedis("SADD", userId, productId);
+        LikeEventRequest eventDto = new LikeEventRequest(userId, productId, sequence);
         rabbitTemplate.convertAndSend(EXCHANGE_NAME, LIKE_ROUTING_KEY, eventDto);
     }
 
     @Transactional
     public void deleteLike(Long userId, Long productId) {
-        String redisKey = "likes:product:" + productId;
-        String userKey = userId.toString();
-
         // Redis에서 제거
-        redisTemplate.opsForSet().remove(redisKey, userKey);
+        long sequence = applyToRedis("SREM", userId, productId);
 
         // DB 삭제는 항상 수행
-        LikeEventRequest eventDto = new LikeEventRequest(userId, productId);
+        LikeEventRequest eventDto = new LikeEventRequest(userId, productId, sequence);
         rabbitTemplate.convertAndSend(EXCHANGE_NAME, DISLIKE_ROUTING_KEY, eventDto);
 
         log.info("[deleteLike] Deleted like for userId={}, productId={}", userId, productId);
     }
+
+    /**
+     * 사용자가 찜한 상품 ID (주어진 상품 중에서)
+     * 사용자 찜 집합을 SMISMEMBER 한 번으로 확인하고, 집합이 없으면 DB에서 채운 뒤 그 목록으로 답한다.
+     */
+    public Set<Long> getLikedProductIds(Long userId, List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        String[] members = productIds.stream().map(String::valueOf).toArray(String[]::new);
+        List<?> flags = redisTemplate.execute(IS_LIKED_SCRIPT, userKeysOf(userId), (Object[]) members);
+
+        if (flags == null) {
+            Set<Long> liked = loadUserLikes(userId);
+            return productIds.stream().filter(liked::contains).collect(Collectors.toSet());
+        }
+
+        Set<Long> liked = new HashSet<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            if (((Number) flags.get(i)).longValue() == 1) {
+                liked.add(productIds.get(i));
+            }
+        }
+        return liked;
+    }
+
+    /**
+     * 상품별 찜 수 (Redis 집합이 적재된 상품만)
+     * 적재되지 않은 상품은 결과에 없으므로 호출하는 쪽에서 DB의 like_count를 그대로 쓴다.
+     */
+    public Map<Long, Integer> getLikeCounts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = new ArrayList<>(productIds);
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Long productId : ids) {
+                    ops.hasKey(productLikesKey(productId) + LOADED_SUFFIX);
+                    ops.opsForSet().size(productLikesKey(productId));
+                }
+                return null;
+            }
+        });
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i * 2))) {
+                counts.put(ids.get(i), ((Long) results.get(i * 2 + 1)).intValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 찜이 바뀐 상품의 찜 수를 DB에 일괄 반영 (스케줄러에서 호출)
+     * 증감이 아닌 SCARD 값으로 덮어쓰므로 여러 번 반영해도 결과가 같다.
+     */
+    public void compactLikeCounts() {
+        int compacted = 0;
+        List<String> popped;
+        do {
+            popped = redisTemplate.opsForSet().pop(DIRTY_KEY, COMPACT_BATCH_SIZE);
+            if (popped == null || popped.isEmpty()) {
+                break;
+            }
+            List<Long> productIds = popped.stream().map(Long::valueOf).toList();
+            try {
+                Map<Long, Integer> counts = getLikeCounts(productIds);
+                productLikeCountRepository.updateLikeCounts(counts);
+                compacted += counts.size();
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 반영하도록 되돌림
+                redisTemplate.opsForSet().add(DIRTY_KEY, popped.toArray(String[]::new));
+                throw e;
+            }
+        } while (popped.size() == COMPACT_BATCH_SIZE);
+
+        if (compacted > 0) {
+            log.info("[Like] 찜 수 DB 반영: {} 건", compacted);
+        }
+    }
+
+    // 집합이 적재되지 않았다면 DB에서 채운 뒤 다시 시도, 반영 순서를 반환 (반영하지 못하면 0)
+    private long applyToRedis(String command, Long userId, Long productId) {
+        for (int attempt = 0; attempt < LOAD_RETRIES; attempt++) {
+            Long result = executeApply(command, userId, productId);
+            if (result == null) {
+                return 0;
+            }
+            if (result >= 0) {
+                return result;
+            }
+            if (result == PRODUCT_NOT_LOADED) {
+                loadLikes(productId);
+            } else if (result == USER_NOT_LOADED) {
+                loadUserLikes(userId);
+            }
+        }
+        log.warn("[Like] 찜 집합 적재 후에도 반영 실패 - userId={}, productId={}", userId, productId);
+        return 0;
+    }
+
+    private Long executeApply(String command, Long userId, Long productId) {
+        List<String> keys = new ArrayList<>(keysOf(productId));
+        keys.addAll(userKeysOf(userId));
+        keys.add(SEQUENCE_KEY);
+        return redisTemplate.execute(APPLY_SCRIPT, keys, userId.toString(), command, productId.toString(),
+                String.valueOf(USER_LIKES_TTL.toSeconds()));
+    }
+
+    // DB의 찜 목록으로 Redis 집합을 채우고 적재 표시 (이미 적재되어 있으면 그대로 둠)
+    private void loadLikes(Long productId) {
+        List<String> args = new ArrayList<>();
+        args.add(productId.toString());
+        productLikeRepository.findUserIdsByProductId(productId).forEach(userId -> args.add(String.valueOf(userId)));
+
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT, keysOf(productId), args.toArray());
+        if (loaded != null && loaded == 1) {
+            log.info("[Like] 찜 집합 적재 - productId={}, count={}", productId, args.size() - 1);
+        }
+    }
+
+    // DB의 사용자 찜 목록으로 사용자 집합을 채우고 적재 표시 (TTL 설정, 이미 적재되어 있으면 그대로 둠)
+    private Set<Long> loadUserLikes(Long userId) {
+        List<Long> productIds = productLikeRepository.findProductIdsByUserId(userId);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(USER_LIKES_TTL.toSeconds()));
+        productIds.forEach(productId -> args.add(String.valueOf(productId)));
+
+        redisTemplate.execute(LOAD_USER_SCRIPT, userKeysOf(userId), args.toArray());
+        return new HashSet<>(productIds);
+    }
+
+    private static List<String> userKeysOf(Long userId) {
+        String key = USER_LIKES_KEY_PREFIX + userId;
+        return List.of(key, key + LOADED_SUFFIX);
+    }
+
+    private static List<String> keysOf(Long productId) {
+        String key = productLikesKey(productId);
+        return List.of(key, key + LOADED_SUFFIX, DIRTY_KEY);
+    }
+
+    private static String productLikesKey(Long productId) {
+        return PRODUCT_LIKES_KEY_PREFIX + productId;
+    }
 }
@@ -1,5 +1,6 @@
 package com.mysite.knitly.domain.product.product.controller;
 
+import com.mysite.knitly.domain.product.product.dto.ProductCursorResponse;
 import com.mysite.knitly.domain.product.product.dto.ProductDetailResponse;
 import com.mysite.knitly.domain.product.product.dto.ProductListResponse;
 import com.mysite.knitly.domain.product.product.entity.ProductCategory;
@@ -24,6 +25,8 @@ import java.util.List;
 public class ProductListController {
     private final ProductService productService;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     // 상품 목록 조회
     @GetMapping
     public ResponseEntity<Page<ProductListResponse>> getProducts(
@@ -37,6 +40,21 @@ public class ProductListController {
         return ResponseEntity.ok(response);
     }
 
+    // 상품 목록 커서 조회 (cursor 파라미터가 있으면 선택, 첫 페이지는 cursor= 로 요청)
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ProductCursorResponse> getProductsByCursor(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false, defaultValue = "ALL") ProductFilterType filter,
+            @RequestParam(required = false, defaultValue = "LATEST") ProductSortType sort,
+            @RequestParam String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        ProductCursorResponse response = productService.getProductsByCursor(user, category, filter, sort, cursor, pageSize);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{productId}")
     public ResponseEntity<ProductDetailResponse> getProductDetail(
             @AuthenticationPrincipal User user,
@@ -0,0 +1,64 @@
+package com.mysite.knitly.domain.product.product.dto;
+
+import com.mysite.knitly.domain.product.product.entity.ProductSortType;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 상품 목록 커서(keyset) 페이지네이션 위치
+ *
+ * 정렬 기준 값 + productId 로 마지막 조회 위치를 표현하며,
+ * 클라이언트에는 Base64 URL 인코딩된 불투명 토큰으로 전달한다.
+ * - LATEST : (createdAt, productId)
+ * - PRICE_ASC / PRICE_DESC : (price, productId)
+ */
+public record ProductCursor(
+        ProductSortType sortType,
+        LocalDateTime createdAt,
+        Double price,
+        Long productId
+) {
+    private static final String DELIMITER = "|";
+
+    public static ProductCursor after(ProductSortType sortType, ProductListResponse last) {
+        return new ProductCursor(sortType, last.createdAt(), last.price(), last.productId());
+    }
+
+    public String encode() {
+        String sortKey = (sortType == ProductSortType.LATEST) ? createdAt.toString() : price.toString();
+        String raw = sortType.name() + DELIMITER + sortKey + DELIMITER + productId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰 디코딩 (빈 토큰이면 첫 페이지이므로 null 반환)
+     * 요청 정렬 조건과 토큰의 정렬 조건이 다르면 잘못된 커서로 처리
+     */
+    public static ProductCursor decode(String token, ProductSortType sortType) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || ProductSortType.valueOf(parts[0]) != sortType) {
+                throw new ServiceException(ErrorCode.PRODUCT_INVALID_CURSOR);
+            }
+
+            Long productId = Long.valueOf(parts[2]);
+            if (sortType == ProductSortType.LATEST) {
+                return new ProductCursor(sortType, LocalDateTime.parse(parts[1]), null, productId);
+            }
+            return new ProductCursor(sortType, null, Double.valueOf(parts[1]), productId);
+
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new ServiceException(ErrorCode.PRODUCT_INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mysite.knitly.domain.product.product.dto;
+
+import java.util.List;
+
+/**
+ * 상품 목록 커서 페이지 응답 (전체 개수는 조회하지 않음)
+ *
+ * @param nextCursor 다음 페이지 요청 시 전달할 토큰 (마지막 페이지면 null)
+ */
+public record ProductCursorResponse(
+        List<ProductListResponse> content,
+        String nextCursor,
+        boolean hasNext
+) {
+}
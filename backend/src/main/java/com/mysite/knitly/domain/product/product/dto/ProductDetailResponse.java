@@ -23,6 +23,12 @@ public record ProductDetailResponse(
         List<String> productImageUrls,
         Integer reviewCount
 ) {
+    // 찜 수만 바꾼 응답 (Redis 기준 찜 수 반영용)
+    public ProductDetailResponse withLikeCount(Integer likeCount) {
+        return new ProductDetailResponse(productId, title, description, productCategory, sizeInfo, price, createdAt,
+                stockQuantity, likeCount, isLikedByUser, avgReviewRating, productImageUrls, reviewCount);
+    }
+
     public static ProductDetailResponse from(Product product, List<String> imageUrls, boolean isLikedByUser) {
         return new ProductDetailResponse(
                 product.getProductId(),
@@ -22,6 +22,13 @@ public record ProductListResponse(
         Boolean isLimited,  // 한정판매 여부
         Boolean isSoldOut   // 품절 여부 (stockQuantity = 0)
 ) {
+    // 찜 수만 바꾼 응답 (Redis 기준 찜 수 반영용)
+    public ProductListResponse withLikeCount(Integer likeCount) {
+        return new ProductListResponse(productId, title, productCategory, price, purchaseCount, likeCount,
+                isLikedByUser, stockQuantity, avgReviewRating, createdAt, thumbnailUrl, sellerName,
+                isFree, isLimited, isSoldOut);
+    }
+
     public static ProductListResponse from(Product product, boolean isLikedByUser) {
         // Product의 첫 번째 이미지를 thumbnailUrl로 사용
         String thumbnailUrl = null;
@@ -0,0 +1,14 @@
+package com.mysite.knitly.domain.product.product.dto;
+
+import com.mysite.knitly.domain.product.product.entity.ProductCategory;
+
+/**
+ * 인기 랭킹 재동기화용 프로젝션
+ * 랭킹 점수와 소속 랭킹(카테고리/무료/한정판매) 판단에 필요한 컬럼만 조회
+ */
+public record ProductRankingRow(Long productId,
+                                Integer purchaseCount,
+                                ProductCategory productCategory,
+                                Double price,
+                                Integer stockQuantity) {
+}
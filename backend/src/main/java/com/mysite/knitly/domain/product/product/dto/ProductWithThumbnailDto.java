@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 
 /**
  * 상품 목록 조회용 DTO (대표 이미지 포함)
- * Native Query의 결과를 매핑
+ * JPQL DTO 프로젝션 결과를 매핑 (엔티티, 이미지 컬렉션을 로딩하지 않음)
  */
 public record ProductWithThumbnailDto (Long productId,
                                        String title,
@@ -19,9 +19,25 @@ public record ProductWithThumbnailDto (Long productId,
                                        Integer stockQuantity,
                                        Double avgReviewRating,
                                        LocalDateTime createdAt,
-                                       String thumbnailUrl){
+                                       String thumbnailUrl,
+                                       String sellerName){
 
+    /**
+     * 판매자 이름 없이 조회하는 경우 (판매자별 상품 조회)
+     */
+    public ProductWithThumbnailDto(Long productId, String title, ProductCategory productCategory, Double price,
+                                   Integer purchaseCount, Integer likeCount, Integer stockQuantity,
+                                   Double avgReviewRating, LocalDateTime createdAt, String thumbnailUrl) {
+        this(productId, title, productCategory, price, purchaseCount, likeCount, stockQuantity,
+                avgReviewRating, createdAt, thumbnailUrl, null);
+    }
 
+    /**
+     * ProductListResponse로 변환 (조회한 판매자 이름 사용)
+     */
+    public ProductListResponse toResponse(boolean isLikedByUser) {
+        return toResponse(isLikedByUser, this.sellerName != null ? this.sellerName : "알 수 없음");
+    }
 
     /**
      * ProductListResponse로 변환
@@ -0,0 +1,5 @@
+package com.mysite.knitly.domain.product.product.entity;
+
+public enum PopularityWindow {
+    ALL_TIME, TODAY, WEEK // 누적, 최근 24시간, 최근 7일(시간 감쇠)
+}
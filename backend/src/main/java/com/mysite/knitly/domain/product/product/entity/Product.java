@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -16,7 +17,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * purchase_count, like_count, stock_quantity 는 배치 UPDATE(JdbcTemplate)로 직접 증감하므로
+ * 엔티티 변경 시 바뀐 컬럼만 UPDATE 해서 읽어 둔 옛 값으로 덮어쓰지 않게 한다.
+ */
 @Entity
+@DynamicUpdate
 @Getter
 @NoArgsConstructor
 @Table(name = "products")
@@ -126,6 +132,11 @@ public class Product {
         if (images != null) {
             this.productImages.addAll(images);
             images.forEach(image -> image.setProduct(this)); // 양방향 연관관계 설정
+
+            // 목록 대표 이미지(sortOrder = 1) 조회를 위해 순서 부여
+            for (int i = 0; i < images.size(); i++) {
+                images.get(i).setSortOrder((long) i + 1);
+            }
         }
     }
 
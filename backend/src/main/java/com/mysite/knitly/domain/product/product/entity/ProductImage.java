@@ -31,4 +31,8 @@ public class ProductImage {
     public void setProduct(Product product) {
         this.product = product;
     }
+
+    public void setSortOrder(Long sortOrder) {
+        this.sortOrder = sortOrder;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,22 @@
 package com.mysite.knitly.domain.product.product.entity;
 
 public enum ProductSortType {
-    POPULAR, LATEST, PRICE_ASC, PRICE_DESC
+    POPULAR(PopularityWindow.ALL_TIME),       // 인기순 (누적)
+    POPULAR_TODAY(PopularityWindow.TODAY),    // 오늘의 인기순
+    POPULAR_WEEK(PopularityWindow.WEEK),      // 이번 주 인기순
+    LATEST(null), PRICE_ASC(null), PRICE_DESC(null);
+
+    private final PopularityWindow popularityWindow;
+
+    ProductSortType(PopularityWindow popularityWindow) {
+        this.popularityWindow = popularityWindow;
+    }
+
+    public boolean isPopular() {
+        return popularityWindow != null;
+    }
+
+    public PopularityWindow getPopularityWindow() {
+        return popularityWindow;
+    }
 }
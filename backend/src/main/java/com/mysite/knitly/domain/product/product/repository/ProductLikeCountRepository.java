@@ -0,0 +1,33 @@
+package com.mysite.knitly.domain.product.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductLikeCountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 상품별 찜 수(Redis 기준 값)를 JDBC 배치 한 번으로 덮어쓰기
+     * productId 순으로 갱신해서 행 잠금 순서를 맞춘다.
+     */
+    @Transactional
+    public void updateLikeCounts(Map<Long, Integer> likeCounts) {
+        List<Object[]> args = likeCounts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        if (args.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE products SET like_count = ? WHERE product_id = ?", args);
+    }
+}
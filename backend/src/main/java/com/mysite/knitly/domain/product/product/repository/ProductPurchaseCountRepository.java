@@ -0,0 +1,33 @@
+package com.mysite.knitly.domain.product.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductPurchaseCountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 상품별 구매수 증가분을 JDBC 배치 한 번으로 반영
+     *
+     * 증가분만 더하므로 여러 서버가 각자 모아둔 값을 동시에 반영해도 덮어쓰지 않는다.
+     * productId 순으로 갱신해서 서버 간 행 잠금 순서를 맞춘다 (데드락 방지).
+     */
+    @Transactional
+    public void incrementPurchaseCounts(Map<Long, Long> deltas) {
+        List<Object[]> args = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE products SET purchase_count = purchase_count + ? WHERE product_id = ?", args);
+    }
+}
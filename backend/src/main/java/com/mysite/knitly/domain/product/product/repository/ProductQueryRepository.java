@@ -0,0 +1,82 @@
+package com.mysite.knitly.domain.product.product.repository;
+
+import com.mysite.knitly.domain.product.product.dto.ProductCursor;
+import com.mysite.knitly.domain.product.product.entity.ProductCategory;
+import com.mysite.knitly.domain.product.product.entity.ProductFilterType;
+import com.mysite.knitly.domain.product.product.entity.ProductSortType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductQueryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 커서 이후의 상품 ID 조회 (keyset 페이지네이션)
+     *
+     * offset 대신 (정렬 기준 값, productId) 조건으로 시작 위치를 찾으므로
+     * 페이지가 깊어져도 앞의 행을 읽고 버리지 않으며, COUNT 쿼리도 실행하지 않는다.
+     */
+    public List<Long> findIdsAfterCursor(
+            ProductCategory category,
+            ProductFilterType filterType,
+            ProductSortType sortType,
+            ProductCursor cursor,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder("""
+                select p.productId from Product p
+                where p.isDeleted = false
+                """);
+
+        // 조건 (카테고리 > 무료 > 한정판매 순으로 하나만 적용)
+        if (category != null) {
+            jpql.append(" and p.productCategory = :category");
+        } else if (filterType == ProductFilterType.FREE) {
+            jpql.append(" and p.price = 0");
+        } else if (filterType == ProductFilterType.LIMITED) {
+            jpql.append(" and p.stockQuantity is not null");
+        }
+
+        // 커서 조건 + 정렬 (productId를 보조 정렬 키로 사용해 순서를 고정)
+        switch (sortType) {
+            case LATEST -> {
+                if (cursor != null) {
+                    jpql.append(" and (p.createdAt < :sortKey or (p.createdAt = :sortKey and p.productId < :productId))");
+                }
+                jpql.append(" order by p.createdAt desc, p.productId desc");
+            }
+            case PRICE_ASC -> {
+                if (cursor != null) {
+                    jpql.append(" and (p.price > :sortKey or (p.price = :sortKey and p.productId > :productId))");
+                }
+                jpql.append(" order by p.price asc, p.productId asc");
+            }
+            case PRICE_DESC -> {
+                if (cursor != null) {
+                    jpql.append(" and (p.price < :sortKey or (p.price = :sortKey and p.productId < :productId))");
+                }
+                jpql.append(" order by p.price desc, p.productId desc");
+            }
+            default -> throw new IllegalArgumentException("커서 조회를 지원하지 않는 정렬입니다: " + sortType);
+        }
+
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class);
+
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (cursor != null) {
+            query.setParameter("sortKey", sortType == ProductSortType.LATEST ? cursor.createdAt() : cursor.price());
+            query.setParameter("productId", cursor.productId());
+        }
+
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,15 +1,18 @@
 package com.mysite.knitly.domain.product.product.repository;
 import org.springframework.data.repository.query.Param;
 
+import com.mysite.knitly.domain.product.product.dto.ProductRankingRow;
 import com.mysite.knitly.domain.product.product.dto.ProductWithThumbnailDto;
 import com.mysite.knitly.domain.product.product.entity.Product;
 import com.mysite.knitly.domain.product.product.entity.ProductCategory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,51 +75,119 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<ProductWithThumbnailDto> findByUserIdWithThumbnail(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * 전체 상품 조회 (이미지 포함, N+1 방지)
+     * 전체 상품 ID 페이지 조회
+     *
+     * 컬렉션 fetch join + Pageable 조합은 Hibernate가 전체 결과를 메모리에서 페이징하므로
+     * 1단계로 ID만 DB에서 페이징하고, 2단계에서 해당 페이지의 상품만 조회한다.
      */
-    @Query("SELECT DISTINCT p FROM Product p " +
-            "LEFT JOIN FETCH p.productImages " +
-            "WHERE p.isDeleted = false")
-    Page<Product> findAllWithImagesAndNotDeleted(Pageable pageable);
+    @Query(value = "SELECT p.productId FROM Product p WHERE p.isDeleted = false",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isDeleted = false")
+    Page<Long> findIdsByIsDeletedFalse(Pageable pageable);
 
     /**
-     * 카테고리별 조회 (이미지 포함, N+1 방지)
+     * 카테고리별 상품 ID 페이지 조회
      */
-    @Query("SELECT DISTINCT p FROM Product p " +
-            "LEFT JOIN FETCH p.productImages " +
-            "WHERE p.productCategory = :category AND p.isDeleted = false")
-    Page<Product> findByCategoryWithImagesAndNotDeleted(
+    @Query(value = "SELECT p.productId FROM Product p " +
+            "WHERE p.productCategory = :category AND p.isDeleted = false",
+            countQuery = "SELECT COUNT(p) FROM Product p " +
+                    "WHERE p.productCategory = :category AND p.isDeleted = false")
+    Page<Long> findIdsByCategoryAndNotDeleted(
             @Param("category") ProductCategory category,
             Pageable pageable
     );
 
     /**
-     * 무료 상품 조회 (이미지 포함, N+1 방지)
+     * 가격별(무료) 상품 ID 페이지 조회
      */
-    @Query("SELECT DISTINCT p FROM Product p " +
-            "LEFT JOIN FETCH p.productImages " +
-            "WHERE p.price = :price AND p.isDeleted = false")
-    Page<Product> findByPriceWithImagesAndNotDeleted(
+    @Query(value = "SELECT p.productId FROM Product p " +
+            "WHERE p.price = :price AND p.isDeleted = false",
+            countQuery = "SELECT COUNT(p) FROM Product p " +
+                    "WHERE p.price = :price AND p.isDeleted = false")
+    Page<Long> findIdsByPriceAndNotDeleted(
             @Param("price") Double price,
             Pageable pageable
     );
 
     /**
-     * 한정판매 조회 (이미지 포함, N+1 방지)
+     * 한정판매 상품 ID 페이지 조회
      */
-    @Query("SELECT DISTINCT p FROM Product p " +
-            "LEFT JOIN FETCH p.productImages " +
-            "WHERE p.stockQuantity IS NOT NULL AND p.isDeleted = false")
-    Page<Product> findLimitedWithImagesAndNotDeleted(Pageable pageable);
+    @Query(value = "SELECT p.productId FROM Product p " +
+            "WHERE p.stockQuantity IS NOT NULL AND p.isDeleted = false",
+            countQuery = "SELECT COUNT(p) FROM Product p " +
+                    "WHERE p.stockQuantity IS NOT NULL AND p.isDeleted = false")
+    Page<Long> findIdsLimitedAndNotDeleted(Pageable pageable);
 
     /**
-     * productId 리스트로 여러 개 조회 (이미지 포함, N+1 방지)
+     * productId 목록으로 목록용 DTO 조회 (대표 이미지 + 판매자 이름)
+     *
+     * 대표 이미지 하나만 LEFT JOIN 하는 DTO 프로젝션으로,
+     * Product 엔티티와 이미지 컬렉션을 영속성 컨텍스트에 올리지 않는다.
+     * 대표 이미지: sortOrder = 1인 이미지, sortOrder가 없는 기존 상품은 가장 먼저 등록된 이미지
+     * (MIN(productImageId)로 한 장만 고르므로 sortOrder = 1이 여러 장이어도 상품당 한 행)
+     * 순서는 보장하지 않으므로 호출하는 쪽에서 productIds 순서대로 정렬한다.
      */
-    @Query("SELECT DISTINCT p FROM Product p " +
-            "LEFT JOIN FETCH p.productImages " +
-            "WHERE p.productId IN :productIds AND p.isDeleted = false")
-    List<Product> findByProductIdInWithImagesAndNotDeleted(
-            @Param("productIds") List<Long> productIds
-    );
+    @Query("""
+            SELECT new com.mysite.knitly.domain.product.product.dto.ProductWithThumbnailDto(
+                p.productId,
+                p.title,
+                p.productCategory,
+                p.price,
+                p.purchaseCount,
+                p.likeCount,
+                p.stockQuantity,
+                p.avgReviewRating,
+                p.createdAt,
+                pi.productImageUrl,
+                u.name
+            )
+            FROM Product p
+            JOIN p.user u
+            LEFT JOIN ProductImage pi ON pi.productImageId = (
+                SELECT MIN(pi2.productImageId) FROM ProductImage pi2
+                WHERE pi2.product.productId = p.productId
+                AND (pi2.sortOrder = 1 OR pi2.sortOrder IS NULL)
+            )
+            WHERE p.productId IN :productIds
+            AND p.isDeleted = false
+            """)
+    List<ProductWithThumbnailDto> findWithThumbnailByProductIdIn(@Param("productIds") List<Long> productIds);
+
+    /**
+     * 인기 랭킹 재동기화용 조회 (productId 키셋 페이징)
+     *
+     * OFFSET 없이 마지막으로 읽은 productId 이후만 PK 범위로 읽으므로
+     * 상품 수가 많아도 배치마다 조회 비용이 일정하다.
+     */
+    @Query("""
+            SELECT new com.mysite.knitly.domain.product.product.dto.ProductRankingRow(
+                p.productId,
+                p.purchaseCount,
+                p.productCategory,
+                p.price,
+                p.stockQuantity
+            )
+            FROM Product p
+            WHERE p.productId > :lastProductId
+            AND p.isDeleted = false
+            ORDER BY p.productId ASC
+            """)
+    List<ProductRankingRow> findRankingRowsAfter(@Param("lastProductId") Long lastProductId, Limit limit);
+
+    /**
+     * 구매수 반영 대상 상품의 랭킹 정보 조회 (판매 중지 상품 제외)
+     */
+    @Query("""
+            SELECT new com.mysite.knitly.domain.product.product.dto.ProductRankingRow(
+                p.productId,
+                p.purchaseCount,
+                p.productCategory,
+                p.price,
+                p.stockQuantity
+            )
+            FROM Product p
+            WHERE p.productId IN :productIds
+            AND p.isDeleted = false
+            """)
+    List<ProductRankingRow> findRankingRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
 
 }
@@ -0,0 +1,47 @@
+package com.mysite.knitly.domain.product.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 확정된 재고 차감분을 JDBC 배치 한 번으로 반영
+     *
+     * 남은 재고가 차감분 이상인 경우에만 갱신하는 조건부 UPDATE라 읽고-쓰기 사이의 경합이나 락 없이도
+     * 재고가 음수가 되지 않는다. productId 순으로 갱신해서 서버 간 행 잠금 순서를 맞춘다 (데드락 방지).
+     * @return 반영되지 않은 상품 ID 목록 (DB 재고 부족, 상품 없음, 상시 판매로 바뀐 경우)
+     */
+    @Transactional
+    public List<Long> decreaseStockQuantities(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        List<Object[]> args = entries.stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()})
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock_quantity = stock_quantity - ? " +
+                        "WHERE product_id = ? AND stock_quantity >= ?", args);
+
+        // 드라이버가 배치를 재작성하면 SUCCESS_NO_INFO(-2)를 돌려주므로 0인 경우만 실패로 본다
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
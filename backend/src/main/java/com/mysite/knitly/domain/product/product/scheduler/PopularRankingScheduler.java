@@ -0,0 +1,38 @@
+package com.mysite.knitly.domain.product.product.scheduler;
+
+import com.mysite.knitly.domain.product.product.service.RedisProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 인기 랭킹 주기 작업
+ * - 기간별(오늘/이번 주) 랭킹 재계산: 구매 시 today/week 키에 바로 더해지므로, 기간이 지난 버킷을 덜어내는 역할만 한다.
+ * - 누적 랭킹 재동기화: Redis 유실/누락에 대비해 DB의 purchaseCount 기준으로 전체 랭킹을 다시 만든다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PopularRankingScheduler {
+
+    private final RedisProductService redisProductService;
+
+    @Scheduled(cron = "0 */10 * * * *")
+    public void rebuildWindowedRankings() {
+        try {
+            redisProductService.rebuildWindowedRankings();
+        } catch (Exception e) {
+            log.error("기간별 인기 랭킹 재계산 실패", e);
+        }
+    }
+
+    @Scheduled(cron = "${product.popular.resync-cron:0 30 4 * * *}")
+    public void resyncFromDatabase() {
+        try {
+            redisProductService.resyncFromDatabase();
+        } catch (Exception e) {
+            log.error("인기 랭킹 재동기화 실패", e);
+        }
+    }
+}
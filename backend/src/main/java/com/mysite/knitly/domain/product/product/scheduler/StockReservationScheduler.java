@@ -0,0 +1,27 @@
+package com.mysite.knitly.domain.product.product.scheduler;
+
+import com.mysite.knitly.domain.product.product.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 결제 대기 시간이 지난 재고 예약 해제
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationScheduler {
+
+    private final StockReservationService stockReservationService;
+
+    @Scheduled(fixedDelay = 30_000)
+    public void releaseExpiredReservations() {
+        try {
+            stockReservationService.releaseExpired();
+        } catch (Exception e) {
+            log.error("만료 재고 예약 해제 실패", e);
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.mysite.knitly.domain.product.product.service;
 
 import com.mysite.knitly.domain.design.entity.Design;
 import com.mysite.knitly.domain.design.repository.DesignRepository;
-import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
+import com.mysite.knitly.domain.product.like.service.ProductLikeService;
 import com.mysite.knitly.domain.product.product.dto.*;
 import com.mysite.knitly.domain.product.product.entity.*;
+import com.mysite.knitly.domain.product.product.repository.ProductQueryRepository;
 import com.mysite.knitly.domain.product.product.repository.ProductRepository;
 import com.mysite.knitly.domain.product.review.repository.ReviewRepository;
 import com.mysite.knitly.domain.user.entity.User;
@@ -27,10 +28,12 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductQueryRepository productQueryRepository;
     private final DesignRepository designRepository;
     private final RedisProductService redisProductService;
+    private final StockReservationService stockReservationService;
     private final FileStorageService fileStorageService;
-    private final ProductLikeRepository productLikeRepository;
+    private final ProductLikeService productLikeService;
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
 
@@ -62,6 +65,9 @@ public class ProductService {
 
         Product savedProduct = productRepository.save(product);
 
+        // 인기순 랭킹에 추가 (구매수 0)
+        redisProductService.addToRanking(savedProduct);
+
         List<String> imageUrls = savedProduct.getProductImages().stream()
                 .map(ProductImage::getProductImageUrl)
                 .collect(Collectors.toList());
@@ -125,6 +131,12 @@ public class ProductService {
 // 7. 삭제할 이미지 파일 실제 삭제 (S3, 로컬 등)
         deletedImageUrls.forEach(fileStorageService::deleteFile);
 
+// 8. 카테고리/한정판매 여부 변경을 인기순 하위 랭킹에 반영
+        redisProductService.refreshRanking(product);
+
+// 9. 수정된 재고를 Redis 재고 예약에 반영
+        stockReservationService.resetStock(product.getProductId(), product.getStockQuantity());
+
 
         List<String> currentImageUrls = product.getProductImages().stream()
                 .map(ProductImage::getProductImageUrl)
@@ -146,6 +158,9 @@ public class ProductService {
 
         // [판매중] 도안을 [판매 중지]로 변경
         product.getDesign().stopSale();
+
+        // 인기순 랭킹에서 제외
+        redisProductService.removeFromRanking(product);
     }
 
     @Transactional
@@ -159,6 +174,9 @@ public class ProductService {
         // 3. Product와 Design 상태를 '판매 중'으로 원복
         product.relist(); // Product의 isDeleted를 false로 변경
         product.getDesign().relist(); // Design의 designState를 ON_SALE으로 변경
+
+        // 인기순 랭킹에 다시 추가
+        redisProductService.addToRanking(product);
     }
 
     private List<ProductImage> saveProductImages(List<MultipartFile> imageFiles) {
@@ -200,98 +218,138 @@ public class ProductService {
         ProductCategory effectiveCategory =
                 (effectiveFilter == ProductFilterType.ALL) ? category : null;
 
-        Page<Product> productPage;
+        // 1단계: 페이지에 해당하는 상품 ID만 조회
+        Page<Long> idPage;
 
-        if (sortType == ProductSortType.POPULAR) {
-            productPage = getProductsByPopular(effectiveCategory, effectiveFilter, pageable);
+        if (sortType.isPopular()) {
+            idPage = getProductIdsByPopular(effectiveCategory, effectiveFilter, sortType.getPopularityWindow(), pageable);
         } else {
             Pageable sortedPageable = createPageable(pageable, sortType);
-            productPage = getFilteredProducts(effectiveCategory, effectiveFilter, sortedPageable);
+            idPage = getFilteredProductIds(effectiveCategory, effectiveFilter, sortedPageable);
         }
 
-        // '좋아요' 누른 상품 ID 목록을 한 번에 조회
-        Set<Long> likedProductIds = getLikedProductIds(user, productPage.getContent());
+        // 2단계: 해당 페이지의 상품과 대표 이미지만 조회
+        List<ProductListResponse> content = getProductListResponses(user, idPage.getContent());
 
-        // DTO의 from(Product, boolean) 메서드를 사용하여 변환
-        return productPage.map(product ->
-                ProductListResponse.from(
-                        product,
-                        likedProductIds.contains(product.getProductId())
-                )
-        );
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
     }
 
-    private Set<Long> getLikedProductIds(User user, List<Product> products) {
-        // 1. 비로그인 사용자이거나 상품 목록이 비어있으면 빈 Set 반환
-        if (user == null || products.isEmpty()) {
-            return Collections.emptySet();
+    /**
+     * 상품 목록 커서 조회 (무한 스크롤용)
+     *
+     * (createdAt, productId) 또는 (price, productId) 기준 keyset 조회로
+     * 페이지 깊이와 무관하게 일정한 비용으로 다음 페이지를 가져온다. 전체 개수는 조회하지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public ProductCursorResponse getProductsByCursor(
+            User user,
+            ProductCategory category,
+            ProductFilterType filterType,
+            ProductSortType sortType,
+            String cursor,
+            int size) {
+
+        if (sortType.isPopular()) {
+            throw new ServiceException(ErrorCode.PRODUCT_CURSOR_SORT_NOT_SUPPORTED);
+        }
+
+        ProductFilterType effectiveFilter = (filterType == null) ? ProductFilterType.ALL : filterType;
+
+        ProductCategory effectiveCategory =
+                (effectiveFilter == ProductFilterType.ALL) ? category : null;
+
+        ProductCursor after = ProductCursor.decode(cursor, sortType);
+
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회
+        List<Long> ids = productQueryRepository.findIdsAfterCursor(
+                effectiveCategory, effectiveFilter, sortType, after, size + 1);
+
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+
+        List<ProductListResponse> content = getProductListResponses(user, pageIds);
+
+        String nextCursor = (hasNext && !content.isEmpty())
+                ? ProductCursor.after(sortType, content.get(content.size() - 1)).encode()
+                : null;
+
+        return new ProductCursorResponse(content, nextCursor, hasNext);
+    }
+
+    /**
+     * ID 순서를 유지하면서 상품 목록 응답 생성
+     * 대표 이미지만 조인한 DTO 프로젝션 1회 + 찜 여부 1회로 조회
+     * 찜 수는 Redis 값을 우선 사용 (DB like_count는 주기적으로 반영되는 값)
+     */
+    private List<ProductListResponse> getProductListResponses(User user, List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        // 2. 상품 ID 목록 추출
-        List<Long> productIds = products.stream()
-                .map(Product::getProductId)
+        Map<Long, ProductWithThumbnailDto> dtoMap = productRepository.findWithThumbnailByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductWithThumbnailDto::productId, dto -> dto, (first, second) -> first));
+
+        Set<Long> likedProductIds = getLikedProductIds(user, productIds);
+        Map<Long, Integer> likeCounts = productLikeService.getLikeCounts(productIds);
+
+        return productIds.stream()
+                .map(dtoMap::get)
+                .filter(Objects::nonNull)
+                .map(dto -> dto.toResponse(likedProductIds.contains(dto.productId())))
+                .map(response -> likeCounts.containsKey(response.productId())
+                        ? response.withLikeCount(likeCounts.get(response.productId()))
+                        : response)
                 .toList();
+    }
 
-        // 3. [수정] 제공된 레포지토리의 메서드명과 User의 ID 필드명(userId)을 사용
-        //    (user.getId() -> user.getUserId()로 가정)
-        return productLikeRepository.findLikedProductIdsByUserId(
-                user.getUserId(), // user.userId 필드에 접근
-                productIds
-        );
+    private Set<Long> getLikedProductIds(User user, List<Long> productIds) {
+        // 1. 비로그인 사용자이거나 상품 목록이 비어있으면 빈 Set 반환
+        if (user == null || productIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return productLikeService.getLikedProductIds(user.getUserId(), productIds);
     }
 
 
     // 인기순 - Redis 활용
     /**
-     * 인기순 상품 조회 (이미지 포함)
+     * 인기순 상품 ID 조회
+     * 조건별/기간별 랭킹(Sorted Set)에서 해당 페이지 구간만 조회
+     * 기간 랭킹이 비어 있으면 (해당 기간 구매 없음) 누적 랭킹으로 대체
      */
-    private Page<Product> getProductsByPopular(
+    private Page<Long> getProductIdsByPopular(
             ProductCategory category,
             ProductFilterType filterType,
+            PopularityWindow window,
             Pageable pageable) {
 
-        // Redis에서 인기 상품 ID 목록 가져오기
-        List<Long> topIds = redisProductService.getTopNPopularProducts(100);
+        Page<Long> idPage = redisProductService.getPopularProductIds(category, filterType, window, pageable);
 
-        List<Product> products;
-
-        if (topIds.isEmpty()) {
-            // Redis에 데이터가 없으면 DB에서 직접 조회 (이미지 포함)
-            Pageable top100 = PageRequest.of(0, 100, Sort.by("purchaseCount").descending());
-            products = productRepository.findAllWithImagesAndNotDeleted(top100).getContent();
-        } else {
-            // Redis에서 가져온 ID로 상품 조회 (이미지 포함)
-            List<Product> unordered = productRepository.findByProductIdInWithImagesAndNotDeleted(topIds);
-
-            // Redis의 순서대로 정렬
-            Map<Long, Product> productMap = unordered.stream()
-                    .collect(Collectors.toMap(Product::getProductId, p -> p));
-
-            products = topIds.stream()
-                    .map(productMap::get)
-                    .filter(Objects::nonNull)
-                    .toList();
+        if (idPage.getTotalElements() == 0 && window != PopularityWindow.ALL_TIME) {
+            idPage = redisProductService.getPopularProductIds(category, filterType, PopularityWindow.ALL_TIME, pageable);
         }
 
-        // 필터링 적용
-        products = products.stream()
-                .filter(p -> matchesCondition(p, category, filterType))
-                .toList();
+        if (idPage.getTotalElements() == 0) {
+            // Redis에 데이터가 없으면 DB에서 직접 조회
+            Pageable byPurchaseCount = PageRequest.of(
+                    pageable.getPageNumber(), pageable.getPageSize(), Sort.by("purchaseCount").descending());
+            return getFilteredProductIds(category, filterType, byPurchaseCount);
+        }
 
-        // 페이징 처리
-        return convertToPage(products, pageable);
+        return idPage;
     }
 
 
     /**
-     * 조건별 상품 조회 (이미지 포함)
+     * 조건별 상품 ID 조회
      *
      * 1. 카테고리 조회: 특정 카테고리의 상품들
      * 2. 무료 상품 조회: 모든 카테고리의 무료 상품
      * 3. 한정판매 조회: 모든 카테고리의 한정판매 상품
      * 4. 전체 조회: 모든 상품
      */
-    private Page<Product> getFilteredProducts(
+    private Page<Long> getFilteredProductIds(
             ProductCategory category,
             ProductFilterType filterType,
             Pageable pageable
@@ -299,21 +357,21 @@ public class ProductService {
 
         // 1. 카테고리 조회 (ALL)
         if (category != null) {
-            return productRepository.findByCategoryWithImagesAndNotDeleted(category, pageable);
+            return productRepository.findIdsByCategoryAndNotDeleted(category, pageable);
         }
 
         // 2. 무료 상품 조회 (카테고리 무관)
         if (filterType == ProductFilterType.FREE) {
-            return productRepository.findByPriceWithImagesAndNotDeleted(0.0, pageable);
+            return productRepository.findIdsByPriceAndNotDeleted(0.0, pageable);
         }
 
         // 3. 한정판매 조회 (카테고리 무관)
         if (filterType == ProductFilterType.LIMITED) {
-            return productRepository.findLimitedWithImagesAndNotDeleted(pageable);
+            return productRepository.findIdsLimitedAndNotDeleted(pageable);
         }
 
         // 4. 전체 조회
-        return productRepository.findAllWithImagesAndNotDeleted(pageable);
+        return productRepository.findIdsByIsDeletedFalse(pageable);
     }
 
     /**
@@ -349,41 +407,6 @@ public class ProductService {
         return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
-    // 상품이 조회 조건이 맞는지 확인
-    private boolean matchesCondition(Product product, ProductCategory category, ProductFilterType filterType) {
-        // 카테고리 조회
-        if (category != null) {
-            return product.getProductCategory().equals(category);
-        }
-
-        // 무료 상품 조회
-        if (filterType == ProductFilterType.FREE) {
-            return product.getPrice() == 0.0;
-        }
-
-        // 한정판매 조회
-        if (filterType == ProductFilterType.LIMITED) {
-            return product.getStockQuantity() != null;
-        }
-
-        // 전체 조회
-        return true;
-    }
-
-    // 페이징 처리
-    private Page<Product> convertToPage(List<Product> products, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), products.size());
-
-        if (start > products.size()) {
-            return new PageImpl<>(Collections.emptyList(), pageable, products.size());
-        }
-
-        List<Product> pageContent = products.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageable, products.size());
-    }
-
     // 상품 상세 조회 로직 추가
     @Transactional(readOnly = true) // 데이터를 읽기만 하므로 readOnly=true로 성능 최적화
     public ProductDetailResponse getProductDetail(User user, Long productId) {
@@ -404,12 +427,14 @@ public class ProductService {
         if (user != null) {
             Long userId = user.getUserId();
 
-            isLiked = productLikeRepository.existsByUser_UserIdAndProduct_ProductId(userId, productId);
+            isLiked = productLikeService.getLikedProductIds(userId, List.of(productId)).contains(productId);
         }
 
         long reviewCount = reviewRepository.countByProductAndIsDeletedFalse(product);
         product.setReviewCount((int) reviewCount);
 
-        return ProductDetailResponse.from(product, imageUrls, isLiked);
+        ProductDetailResponse response = ProductDetailResponse.from(product, imageUrls, isLiked);
+        Integer likeCount = productLikeService.getLikeCounts(List.of(productId)).get(productId);
+        return likeCount != null ? response.withLikeCount(likeCount) : response;
     }
 }
@@ -0,0 +1,89 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.dto.ProductRankingRow;
+import com.mysite.knitly.domain.product.product.repository.ProductPurchaseCountRepository;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 구매수 write-behind 버퍼
+ *
+ * 주문마다 products 행을 UPDATE 하면 인기 상품일수록 같은 행 잠금에 주문이 줄을 서게 된다.
+ * 결제 완료 시에는 서버 메모리의 LongAdder에만 더하고, 주기적으로 모인 증가분을
+ * DB(purchase_count + ?)와 Redis 랭킹에 한 번에 반영한다.
+ * - 반영에 실패한 증가분은 버퍼에 되돌려 다음 주기에 다시 시도한다.
+ * - 서버 종료 시 남은 증가분을 마지막으로 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PurchaseCountBuffer {
+
+    private final ProductPurchaseCountRepository productPurchaseCountRepository;
+    private final ProductRepository productRepository;
+    private final RedisProductService redisProductService;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // 결제 승인 커밋 이후 호출 (PaymentOutboxService)
+    public void increment(Long productId) {
+        counters.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${product.purchase-count.flush-interval-ms:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            productPurchaseCountRepository.incrementPurchaseCounts(deltas);
+        } catch (Exception e) {
+            log.error("구매수 DB 반영 실패, 다음 주기에 재시도: {} 개 상품", deltas.size(), e);
+            deltas.forEach((productId, delta) ->
+                    counters.computeIfAbsent(productId, id -> new LongAdder()).add(delta));
+            return;
+        }
+
+        // DB는 이미 반영되었으므로 Redis 실패는 재시도하지 않음 (일일 재동기화에서 맞춰짐)
+        try {
+            List<ProductRankingRow> products = productRepository.findRankingRowsByProductIdIn(deltas.keySet());
+            redisProductService.incrementPurchaseCounts(products, deltas);
+        } catch (Exception e) {
+            log.error("구매수 Redis 랭킹 반영 실패: {} 개 상품", deltas.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 현재까지 모인 증가분을 꺼낸다.
+     * sumThenReset()은 합산과 초기화 사이에 들어온 증가분을 잃을 수 있으므로
+     * 읽은 만큼만 빼서 동시에 들어온 증가분은 버퍼에 남긴다.
+     */
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        counters.forEach((productId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                adder.add(-delta);
+                deltas.put(productId, delta);
+            }
+        });
+        return deltas;
+    }
+}
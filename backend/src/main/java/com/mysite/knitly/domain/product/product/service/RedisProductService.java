@@ -1,30 +1,248 @@
 package com.mysite.knitly.domain.product.product.service;
 
+import com.mysite.knitly.domain.product.product.dto.ProductRankingRow;
+import com.mysite.knitly.domain.product.product.entity.PopularityWindow;
 import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.entity.ProductCategory;
+import com.mysite.knitly.domain.product.product.entity.ProductFilterType;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntToDoubleFunction;
 
+/**
+ * 인기순 랭킹 (Redis Sorted Set, score = 구매수)
+ *
+ * 전체 랭킹 외에 카테고리별 / 무료 / 한정판매 랭킹을 따로 유지해서
+ * 조건별 인기순 페이지를 ZREVRANGE(offset) + ZCARD(전체 개수)로 바로 조회한다.
+ * - product:popular                    : 전체
+ * - product:popular:category:{CATEGORY} : 카테고리별
+ * - product:popular:free               : 무료 상품
+ * - product:popular:limited            : 한정판매 상품
+ *
+ * 각 랭킹은 기간별 변형을 가진다.
+ * - {랭킹}              : 누적
+ * - {랭킹}:hour:{yyyyMMddHH} : 시간 단위 구매수 버킷 (8일 후 만료)
+ * - {랭킹}:today        : 최근 24시간 버킷 합
+ * - {랭킹}:week         : 최근 7일 버킷을 하루 반감기로 감쇠해 합산
+ * 구매 시 today/week에도 바로 더하고, 스케줄러가 주기적으로 버킷을 ZUNIONSTORE로 다시 합쳐
+ * 기간이 지난 구매수를 덜어낸다. 조회는 항상 Sorted Set 하나의 범위 조회로 끝난다.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisProductService {
 
     private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
     private static final String POPULAR_KEY = "product:popular";
+    private static final String CATEGORY_KEY_PREFIX = POPULAR_KEY + ":category:";
+    private static final String FREE_KEY = POPULAR_KEY + ":free";
+    private static final String LIMITED_KEY = POPULAR_KEY + ":limited";
 
+    private static final int TODAY_HOURS = 24;
+    private static final int WEEK_HOURS = 24 * 7;
+    private static final double WEEK_HALF_LIFE_HOURS = 24.0;
+    private static final Duration HOUR_BUCKET_TTL = Duration.ofDays(8);
+    private static final DateTimeFormatter HOUR_BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final int RESYNC_BATCH_SIZE = 5_000;
+    private static final String RESYNC_LOCK_KEY = POPULAR_KEY + ":resync:lock";
+    private static final Duration RESYNC_LEASE = Duration.ofMinutes(30);
+    // 최근 랭킹에 추가된 상품 (재동기화가 읽은 배치 이후에 등록/재판매되어도 교체 시 빠지지 않도록)
+    private static final String RESYNC_ADDED_KEY = POPULAR_KEY + ":resync:added";
 
-    // 상품 구매시 인기도 증가
-    public void incrementPurchaseCount(Long productId) {
-        redisTemplate.opsForZSet().incrementScore(POPULAR_KEY, productId.toString(), 1);
-        log.debug("Redis 인기도 증가: productId={}", productId);
+    // 리스를 잡은 실행만 해제 (리스가 만료되어 다른 실행이 잡았으면 건드리지 않음)
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * 상품을 새 하위 랭킹으로 옮김 (누적 / today / week / 최근 시간 버킷)
+     * KEYS: [전체 랭킹]
+     * ARGV: [상품 ID, 누적 점수 기본값, 버킷 TTL(s), 시간 수 h, 대상 랭킹 수 n, 시간 h개, 대상 랭킹 n개, 나머지 랭킹...]
+     * 점수는 전체 랭킹(KEYS[1])에서 읽는다. 전체 랭킹은 항상 대상이므로 그대로 유지된다.
+     */
+    private static final RedisScript<Long> REFRESH_RANKING_SCRIPT = new DefaultRedisScript<>("""
+            local member = ARGV[1]
+            local h = tonumber(ARGV[4])
+            local n = tonumber(ARGV[5])
+            local windows = {'', ':today', ':week'}
+
+            local scores = {}
+            for _, suffix in ipairs(windows) do
+                scores[suffix] = redis.call('ZSCORE', KEYS[1] .. suffix, member)
+            end
+            if not scores[''] then
+                scores[''] = ARGV[2]
+            end
+            local buckets = {}
+            for i = 1, h do
+                local hour = ARGV[5 + i]
+                buckets[hour] = redis.call('ZSCORE', KEYS[1] .. ':hour:' .. hour, member)
+            end
+
+            for i = 6 + h + n, #ARGV do
+                for _, suffix in ipairs(windows) do
+                    redis.call('ZREM', ARGV[i] .. suffix, member)
+                end
+                for hour in pairs(buckets) do
+                    redis.call('ZREM', ARGV[i] .. ':hour:' .. hour, member)
+                end
+            end
+            for i = 6 + h, 5 + h + n do
+                for _, suffix in ipairs(windows) do
+                    if scores[suffix] then
+                        redis.call('ZADD', ARGV[i] .. suffix, scores[suffix], member)
+                    end
+                end
+                for hour, score in pairs(buckets) do
+                    if score then
+                        local bucket = ARGV[i] .. ':hour:' .. hour
+                        redis.call('ZADD', bucket, score, member)
+                        if redis.call('TTL', bucket) < 0 then
+                            redis.call('EXPIRE', bucket, ARGV[3])
+                        end
+                    end
+                end
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 구매수 증가분을 상품이 속한 모든 랭킹에 반영 (누적 / today / week / 시간 버킷)
+     * PurchaseCountBuffer가 모아둔 증가분을 DB에 반영한 직후 호출한다.
+     */
+    public void incrementPurchaseCounts(List<ProductRankingRow> products, Map<Long, Long> deltas) {
+        String hour = LocalDateTime.now().format(HOUR_BUCKET_FORMAT);
+        pipelined(ops -> products.forEach(product -> {
+            String member = product.productId().toString();
+            long delta = deltas.getOrDefault(product.productId(), 0L);
+            if (delta == 0) {
+                return;
+            }
+            rankingKeysOf(product.productCategory(), product.price(), product.stockQuantity()).forEach(key -> {
+                ops.opsForZSet().incrementScore(key, member, delta);
+                ops.opsForZSet().incrementScore(windowKey(key, PopularityWindow.TODAY), member, delta);
+                ops.opsForZSet().incrementScore(windowKey(key, PopularityWindow.WEEK), member, delta);
+
+                String bucket = hourBucketKey(key, hour);
+                ops.opsForZSet().incrementScore(bucket, member, delta);
+                ops.expire(bucket, HOUR_BUCKET_TTL);
+            });
+        }));
+        log.debug("Redis 인기도 증가: {} 개 상품", products.size());
+    }
+
+    // 상품 등록/재판매시 랭킹에 추가 (DB의 purchaseCount를 점수로 사용)
+    public void addToRanking(Product product) {
+        String member = product.getProductId().toString();
+        double score = product.getPurchaseCount() == null ? 0 : product.getPurchaseCount();
+        pipelined(ops -> {
+            rankingKeysOf(product).forEach(key -> ops.opsForZSet().add(key, member, score));
+            markAdded(ops, member);
+        });
+    }
+
+    // 상품 판매 중지(소프트 딜리트)시 모든 랭킹에서 제거
+    public void removeFromRanking(Product product) {
+        String member = product.getProductId().toString();
+        pipelined(ops -> {
+            allRankingKeys().forEach(key -> {
+                for (PopularityWindow window : PopularityWindow.values()) {
+                    ops.opsForZSet().remove(windowKey(key, window), member);
+                }
+            });
+            ops.opsForSet().remove(RESYNC_ADDED_KEY, member);
+        });
+    }
+
+    /**
+     * 상품 수정으로 카테고리/한정판매 여부가 바뀐 경우 하위 랭킹을 다시 맞춤
+     * 점수는 전체 랭킹의 기간별 현재 점수를 유지한다 (누적 점수가 없으면 DB의 purchaseCount)
+     * 기간별 랭킹은 시간 버킷으로 다시 계산되므로 최근 일주일치 버킷의 점수도 함께 옮긴다.
+     * 점수 조회 ~ 이동을 스크립트 하나로 처리해서 그 사이 반영되는 구매수를 잃지 않는다.
+     */
+    public void refreshRanking(Product product) {
+        String member = product.getProductId().toString();
+        List<String> keys = rankingKeysOf(product);
+        List<String> others = allRankingKeys().stream().filter(key -> !keys.contains(key)).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> args = new ArrayList<>();
+        args.add(member);
+        args.add(String.valueOf(product.getPurchaseCount() == null ? 0 : product.getPurchaseCount()));
+        args.add(String.valueOf(HOUR_BUCKET_TTL.toSeconds()));
+        args.add(String.valueOf(WEEK_HOURS));
+        args.add(String.valueOf(keys.size()));
+        for (int age = 0; age < WEEK_HOURS; age++) {
+            args.add(now.minusHours(age).format(HOUR_BUCKET_FORMAT));
+        }
+        args.addAll(keys);
+        args.addAll(others);
+
+        redisTemplate.execute(REFRESH_RANKING_SCRIPT, List.of(POPULAR_KEY), args.toArray());
+        pipelined(ops -> markAdded(ops, member));
+    }
+
+    /**
+     * 기간별 랭킹 재계산 (스케줄러에서 주기적으로 호출)
+     *
+     * 시간 버킷을 가중치와 함께 ZUNIONSTORE로 합친 뒤, 누적 랭킹과 ZINTERSTORE(가중치 1, 0)해서
+     * 판매 중지되었거나 다른 카테고리로 옮겨진 상품을 걸러낸다.
+     * 결과 키는 명령 한 번에 통째로 교체되므로 조회 쪽에서 중간 상태를 볼 일이 없다.
+     */
+    public void rebuildWindowedRankings() {
+        LocalDateTime now = LocalDateTime.now();
+
+        pipelined(ops -> allRankingKeys().forEach(key -> {
+            rebuildWindow(ops, key, PopularityWindow.TODAY, now, TODAY_HOURS, age -> 1.0);
+            rebuildWindow(ops, key, PopularityWindow.WEEK, now, WEEK_HOURS,
+                    age -> Math.pow(0.5, age / WEEK_HALF_LIFE_HOURS));
+        }));
+        log.debug("기간별 인기 랭킹 재계산 완료");
+    }
+
+    private void rebuildWindow(RedisOperations<String, String> ops, String key, PopularityWindow window,
+                               LocalDateTime now, int hours, IntToDoubleFunction weightOfAge) {
+        List<String> buckets = new ArrayList<>(hours);
+        double[] weights = new double[hours];
+        for (int age = 0; age < hours; age++) {
+            buckets.add(hourBucketKey(key, now.minusHours(age).format(HOUR_BUCKET_FORMAT)));
+            weights[age] = weightOfAge.applyAsDouble(age);
+        }
+
+        String destKey = windowKey(key, window);
+        String tempKey = destKey + ":tmp";
+
+        ops.opsForZSet().unionAndStore(buckets.get(0), buckets.subList(1, hours), tempKey,
+                Aggregate.SUM, Weights.of(weights));
+        ops.opsForZSet().intersectAndStore(tempKey, List.of(key), destKey,
+                Aggregate.SUM, Weights.of(1, 0));
+        ops.delete(tempKey);
     }
 
     // 인기순 Top N 상품 조회
@@ -34,15 +252,193 @@ public class RedisProductService {
         return top.stream().map(Long::valueOf).toList();
     }
 
-    // DB의 purchaseCount를 Redis에 동기화
-    public void syncFromDatabase(List<Product> products) {
-        products.forEach(product -> {
-            redisTemplate.opsForZSet().add(
-                    POPULAR_KEY,
-                    product.getProductId().toString(),
-                    product.getPurchaseCount()
-            );
+    /**
+     * 조건별 인기순 상품 ID 페이지 조회
+     * ZREVRANGE로 해당 페이지 구간만 읽고, 전체 개수는 ZCARD로 계산한다.
+     * 랭킹이 비어 있으면 (Redis 미동기화) 빈 페이지를 반환한다.
+     */
+    public Page<Long> getPopularProductIds(ProductCategory category, ProductFilterType filterType,
+                                           PopularityWindow window, Pageable pageable) {
+        String key = windowKey(rankingKeyFor(category, filterType), window);
+
+        Long total = redisTemplate.opsForZSet().zCard(key);
+        if (total == null || total == 0) {
+            return Page.empty(pageable);
+        }
+
+        long start = pageable.getOffset();
+        long end = start + pageable.getPageSize() - 1;
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(key, start, end);
+
+        List<Long> content = (ids == null) ? Collections.emptyList()
+                : ids.stream().map(Long::valueOf).toList();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * DB의 purchaseCount로 누적 랭킹 전체를 다시 만든다 (스케줄러에서 호출)
+     *
+     * (productId, purchaseCount) 프로젝션을 productId 키셋으로 배치 조회하고,
+     * 배치마다 랭킹 키별로 묶은 ZADD를 파이프라인으로 이번 실행 전용 임시 키({랭킹}:rebuild:{runId})에 쓴다.
+     * - 여러 인스턴스가 동시에 돌지 않도록 SET NX 리스로 한 인스턴스만 실행한다
+     * - 교체는 MULTI/EXEC 안에서 임시 키와 현재 랭킹을 ZUNIONSTORE(MAX) 한 뒤 임시 키와 교집합을 취한다.
+     *   재동기화 중에 현재 랭킹에 더해진 구매수는 유지되고(구매수는 늘기만 하므로 큰 값이 최신),
+     *   DB에 없는(판매 중지된) 상품은 빠진다.
+     * - 배치를 읽은 뒤에 등록/재판매/하위 랭킹 이동된 상품은 임시 키에 없으므로,
+     *   최근 추가된 상품 집합(RESYNC_ADDED_KEY)도 교집합 대상에 포함해 현재 랭킹에서 지우지 않는다.
+     * 기간별 랭킹은 다음 재계산 때 새 누적 랭킹과 교집합을 취하면서 따라 맞춰진다.
+     */
+    public void resyncFromDatabase() {
+        String runId = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(RESYNC_LOCK_KEY, runId, RESYNC_LEASE);
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.info("다른 인스턴스가 인기 랭킹 재동기화 중이라 건너뜀");
+            return;
+        }
+
+        try {
+            resync(runId);
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(RESYNC_LOCK_KEY), runId);
+        }
+    }
+
+    private void resync(String runId) {
+        List<String> keys = allRankingKeys();
+
+        Set<String> written = new HashSet<>();
+        long lastProductId = 0;
+        long count = 0;
+        while (true) {
+            List<ProductRankingRow> rows =
+                    productRepository.findRankingRowsAfter(lastProductId, Limit.of(RESYNC_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            Map<String, Set<ZSetOperations.TypedTuple<String>>> batch = new HashMap<>();
+            for (ProductRankingRow row : rows) {
+                ZSetOperations.TypedTuple<String> tuple = new DefaultTypedTuple<>(
+                        row.productId().toString(),
+                        row.purchaseCount() == null ? 0.0 : row.purchaseCount().doubleValue());
+                rankingKeysOf(row.productCategory(), row.price(), row.stockQuantity()).forEach(key ->
+                        batch.computeIfAbsent(rebuildKey(key, runId), k -> new HashSet<>()).add(tuple));
+            }
+            // 실행이 중간에 죽어도 임시 키가 남지 않도록 리스 기간만큼만 유지
+            pipelined(ops -> batch.forEach((key, tuples) -> {
+                ops.opsForZSet().add(key, tuples);
+                ops.expire(key, RESYNC_LEASE);
+            }));
+            written.addAll(batch.keySet());
+
+            lastProductId = rows.get(rows.size() - 1).productId();
+            count += rows.size();
+        }
+
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                for (String key : keys) {
+                    String rebuildKey = rebuildKey(key, runId);
+                    if (!written.contains(rebuildKey)) {
+                        // DB에는 없고 재동기화 중에 추가된 상품만 남김
+                        ops.opsForZSet().intersectAndStore(key, List.of(RESYNC_ADDED_KEY), key,
+                                Aggregate.SUM, Weights.of(1, 0));
+                        continue;
+                    }
+                    String mergedKey = rebuildKey + ":merged";
+                    String keepKey = rebuildKey + ":keep";
+                    ops.opsForZSet().unionAndStore(rebuildKey, List.of(key), mergedKey, Aggregate.MAX);
+                    ops.opsForZSet().unionAndStore(rebuildKey, List.of(RESYNC_ADDED_KEY), keepKey,
+                            Aggregate.SUM, Weights.of(0, 0));
+                    ops.opsForZSet().intersectAndStore(mergedKey, List.of(keepKey), key,
+                            Aggregate.SUM, Weights.of(1, 0));
+                    ops.delete(List.of(mergedKey, keepKey, rebuildKey));
+                }
+                return ops.exec();
+            }
+        });
+        log.info("Redis 인기 랭킹 재동기화 완료: {} 개 상품", count);
+    }
+
+    // 재동기화 교체 시 남길 상품으로 표시 (마지막 추가 후 리스 기간만큼 유지)
+    private void markAdded(RedisOperations<String, String> ops, String member) {
+        ops.opsForSet().add(RESYNC_ADDED_KEY, member);
+        ops.expire(RESYNC_ADDED_KEY, RESYNC_LEASE);
+    }
+
+    private String rebuildKey(String key, String runId) {
+        return key + ":rebuild:" + runId;
+    }
+
+    private String windowKey(String key, PopularityWindow window) {
+        return switch (window) {
+            case ALL_TIME -> key;
+            case TODAY -> key + ":today";
+            case WEEK -> key + ":week";
+        };
+    }
+
+    private String hourBucketKey(String key, String hour) {
+        return key + ":hour:" + hour;
+    }
+
+    // 조회 조건에 해당하는 랭킹 키 (카테고리 > 무료 > 한정판매 > 전체)
+    private String rankingKeyFor(ProductCategory category, ProductFilterType filterType) {
+        if (category != null) {
+            return CATEGORY_KEY_PREFIX + category.name();
+        }
+        if (filterType == ProductFilterType.FREE) {
+            return FREE_KEY;
+        }
+        if (filterType == ProductFilterType.LIMITED) {
+            return LIMITED_KEY;
+        }
+        return POPULAR_KEY;
+    }
+
+    // 상품이 속한 랭킹 키 목록
+    private List<String> rankingKeysOf(Product product) {
+        return rankingKeysOf(product.getProductCategory(), product.getPrice(), product.getStockQuantity());
+    }
+
+    private List<String> rankingKeysOf(ProductCategory category, Double price, Integer stockQuantity) {
+        List<String> keys = new ArrayList<>();
+        keys.add(POPULAR_KEY);
+        keys.add(CATEGORY_KEY_PREFIX + category.name());
+        if (price != null && price == 0.0) {
+            keys.add(FREE_KEY);
+        }
+        if (stockQuantity != null) {
+            keys.add(LIMITED_KEY);
+        }
+        return keys;
+    }
+
+    private List<String> allRankingKeys() {
+        List<String> keys = new ArrayList<>();
+        keys.add(POPULAR_KEY);
+        for (ProductCategory category : ProductCategory.values()) {
+            keys.add(CATEGORY_KEY_PREFIX + category.name());
+        }
+        keys.add(FREE_KEY);
+        keys.add(LIMITED_KEY);
+        return keys;
+    }
+
+    // 여러 랭킹 갱신을 한 번의 왕복으로 전송
+    private void pipelined(Consumer<RedisOperations<String, String>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
         });
-        log.info("Redis 동기화 완료: {} 개 상품", products.size());
     }
 }
@@ -0,0 +1,177 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.repository.ProductStockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 확정된 재고 차감의 DB 반영 버퍼
+ *
+ * 한정판매 재고의 실시간 판단은 Redis(StockReservationService)가 하고,
+ * DB의 stock_quantity는 결제가 확정된 수량을 모아 주기적으로 배치 반영한다.
+ *
+ * 확정되었지만 DB에 반영되지 않은 수량은 서버 메모리가 아니라 Redis에 둔다.
+ * 서버가 죽어도 남아 있으므로 다음 주기(다른 인스턴스 포함)에 이어서 반영된다.
+ * - stock:pending:{productId} : 미반영 수량 (예약 확정 시 StockReservationService가 올리고, DB 반영 후 내림)
+ * - stock:pending-products    : 미반영 수량이 있는 상품 ID 집합 (반영 대상 조회용)
+ * Redis 재고를 DB에서 다시 채울 때도 미반영 수량을 빼서 초과 판매를 막는다.
+ *
+ * DB 재고가 모자라 반영되지 않은 수량은 결제까지 끝난 초과 판매이므로 버리거나 0으로 맞추지 않고
+ * stock:oversold 해시(상품 ID -> 수량)에 옮겨 기록하고 ERROR 로그로 알린다. (수동 확인 대상)
+ *
+ * 같은 수량을 두 인스턴스가 반영하지 않도록 SET NX 리스를 잡은 인스턴스만 반영한다.
+ * DB 반영에 실패하면 카운터를 건드리지 않으므로 다음 주기에 다시 시도된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCommitBuffer {
+
+    public static final String PENDING_KEY_PREFIX = "stock:pending:";
+    public static final String PENDING_PRODUCTS_KEY = "stock:pending-products";
+    public static final String OVERSOLD_KEY = "stock:oversold";
+    private static final String FLUSH_LOCK_KEY = "stock:flush:lock";
+    private static final Duration FLUSH_LEASE = Duration.ofSeconds(30);
+
+    /**
+     * 미반영 수량 추가
+     * KEYS: [미반영 상품 집합]
+     * ARGV: [미반영 수량 키 prefix, (상품 ID, 수량)...]
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 2 do
+                redis.call('INCRBY', ARGV[1] .. ARGV[i], ARGV[i + 1])
+                redis.call('SADD', KEYS[1], ARGV[i])
+            end
+            return (#ARGV - 1) / 2
+            """, Long.class);
+
+    /**
+     * 처리한 만큼 미반영 수량을 내리고, 남은 수량이 없으면 카운터와 집합에서 지움
+     * DB 재고 부족으로 반영하지 못한 수량(초과 판매 표시 1)은 초과 판매 해시로 옮긴다.
+     * 처리하는 사이 새로 확정된 수량은 카운터에 남아 다음 주기에 반영된다.
+     * KEYS: [미반영 상품 집합, 초과 판매 해시]
+     * ARGV: [미반영 수량 키 prefix, (상품 ID, 수량, 초과 판매 0|1)...]
+     */
+    private static final RedisScript<Long> APPLIED_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 3 do
+                local key = ARGV[1] .. ARGV[i]
+                if ARGV[i + 2] == '1' then
+                    redis.call('HINCRBY', KEYS[2], ARGV[i], ARGV[i + 1])
+                end
+                if redis.call('DECRBY', key, ARGV[i + 1]) <= 0 then
+                    redis.call('DEL', key)
+                    redis.call('SREM', KEYS[1], ARGV[i])
+                end
+            end
+            return (#ARGV - 1) / 3
+            """, Long.class);
+
+    // 리스를 잡은 실행만 해제 (리스가 만료되어 다른 실행이 잡았으면 건드리지 않음)
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final ProductStockRepository productStockRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    // 예약 없이 확정된 수량을 미반영 수량에 추가 (예약이 있으면 확정 스크립트가 직접 옮김)
+    public void add(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(quantities.size() * 2 + 1);
+        args.add(PENDING_KEY_PREFIX);
+        quantities.forEach((productId, quantity) -> {
+            args.add(productId.toString());
+            args.add(quantity.toString());
+        });
+        redisTemplate.execute(ADD_SCRIPT, List.of(PENDING_PRODUCTS_KEY), args.toArray());
+    }
+
+    @Scheduled(fixedDelayString = "${product.stock.flush-interval-ms:1000}")
+    public void flush() {
+        String runId = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, runId, FLUSH_LEASE);
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+
+        try {
+            flushPending();
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), runId);
+        }
+    }
+
+    public static String pendingKey(Long productId) {
+        return PENDING_KEY_PREFIX + productId;
+    }
+
+    private void flushPending() {
+        Set<String> members = redisTemplate.opsForSet().members(PENDING_PRODUCTS_KEY);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = members.stream().map(Long::valueOf).toList();
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(productIds.stream().map(StockCommitBuffer::pendingKey).toList());
+
+        // 수량이 0 이하인 상품도 반영 완료로 넘겨 집합에서 정리되게 한다
+        Map<Long, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            String value = values == null ? null : values.get(i);
+            snapshot.put(productIds.get(i), value == null ? 0L : Long.parseLong(value));
+        }
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        snapshot.forEach((productId, delta) -> {
+            if (delta > 0) {
+                deltas.put(productId, delta);
+            }
+        });
+
+        Set<Long> oversold = new HashSet<>();
+        if (!deltas.isEmpty()) {
+            try {
+                oversold.addAll(productStockRepository.decreaseStockQuantities(deltas));
+            } catch (Exception e) {
+                log.error("재고 차감 DB 반영 실패, 다음 주기에 재시도: {} 개 상품", deltas.size(), e);
+                return;
+            }
+        }
+        // 결제까지 끝난 주문이므로 재시도해도 반영될 재고가 없음 - 초과 판매로 기록
+        oversold.forEach(productId -> log.error("[Stock] 초과 판매 - DB 재고 부족으로 차감 불가, 수동 확인 필요. productId={}, quantity={}",
+                productId, deltas.get(productId)));
+
+        List<String> args = new ArrayList<>(snapshot.size() * 3 + 1);
+        args.add(PENDING_KEY_PREFIX);
+        snapshot.forEach((productId, delta) -> {
+            args.add(productId.toString());
+            args.add(String.valueOf(Math.max(delta, 0)));
+            args.add(oversold.contains(productId) ? "1" : "0");
+        });
+        try {
+            redisTemplate.execute(APPLIED_SCRIPT, List.of(PENDING_PRODUCTS_KEY, OVERSOLD_KEY), args.toArray());
+        } catch (Exception e) {
+            // DB에는 반영되었으므로 다음 주기에 같은 수량이 한 번 더 차감된다 (재고를 적게 잡는 쪽)
+            log.error("미반영 재고 카운터 갱신 실패, 수동 확인 필요 - items={}", deltas, e);
+        }
+    }
+}
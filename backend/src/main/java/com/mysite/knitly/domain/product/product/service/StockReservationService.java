@@ -0,0 +1,286 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 한정판매 상품 재고 예약 (Redis)
+ *
+ * 한정판매 상품의 남은 재고를 Redis(stock:{productId})에 두고, 주문 시 장바구니 전체를
+ * Lua 스크립트 한 번으로 확인/차감한다. 락 없이 원자적으로 처리되므로 DB 행 잠금 경합이 없다.
+ * - 예약: 주문 시 차감하고 stock:reservation:{tossOrderId} 해시에 상품별 수량을 기록 (결제 대기 시간 동안 유지)
+ * - 확정: 결제 승인 시 예약을 지우고 수량을 미반영 수량으로 옮김 (StockCommitBuffer가 DB에 배치 반영)
+ * - 해제: 결제 실패 또는 예약 만료 시 예약 수량을 Redis 재고에 되돌림
+ * Redis 재고 키가 없으면 (최초 주문 / Redis 유실) DB의 stockQuantity로 채운다.
+ * 이때 아직 DB에 반영되지 않은 수량을 빼야 초과 판매가 나지 않으므로 상품별 카운터를 함께 관리한다.
+ * - stock:reserved:{productId} : 결제 대기 중인 예약 수량 (예약 시 +, 확정/해제 시 -)
+ * - stock:pending:{productId}  : 확정되었지만 DB 반영 전인 수량 (확정 시 +, StockCommitBuffer 반영 후 -)
+ * 재고 = DB 재고 - 예약 수량 - 미반영 수량
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private static final String STOCK_KEY_PREFIX = "stock:";
+    private static final String RESERVATION_KEY_PREFIX = "stock:reservation:";
+    private static final String RESERVED_KEY_PREFIX = "stock:reserved:";
+    private static final String EXPIRY_KEY = "stock:reservation:expiry";
+
+    // 결제 대기 시간. 만료된 예약은 releaseExpired()가 해제한다.
+    private static final Duration RESERVATION_TTL = Duration.ofMinutes(15);
+    // 해제 작업이 예약 내용을 읽을 수 있도록 해시는 조금 더 오래 보관
+    private static final Duration RESERVATION_KEY_TTL = RESERVATION_TTL.plusHours(1);
+    private static final int RELEASE_BATCH_SIZE = 500;
+
+    /**
+     * KEYS: [만료 ZSET, 예약 해시, 재고 키 n개, 예약 수량 키 n개]
+     * ARGV: [예약 ID, 만료 시각(ms), 해시 TTL(s), (상품 ID, 수량)...]
+     * 반환: 0 = 성공, i = i번째 상품 재고 부족, -i = i번째 상품 재고 키 없음, n + 1 = 이미 예약됨 (변경 없음)
+     * 같은 예약 ID로 다시 예약하면 기존 예약에 더하지 않는다. (중복 주문 접수가 롤백되며 해제할 때 원래 예약까지 지우지 않도록)
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local n = (#KEYS - 2) / 2
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return n + 1
+            end
+            for i = 1, n do
+                local stock = redis.call('GET', KEYS[i + 2])
+                if not stock then
+                    return -i
+                end
+                if tonumber(stock) < tonumber(ARGV[3 + i * 2]) then
+                    return i
+                end
+            end
+            for i = 1, n do
+                redis.call('DECRBY', KEYS[i + 2], ARGV[3 + i * 2])
+                redis.call('INCRBY', KEYS[i + 2 + n], ARGV[3 + i * 2])
+                redis.call('HINCRBY', KEYS[2], ARGV[2 + i * 2], ARGV[3 + i * 2])
+            end
+            redis.call('EXPIRE', KEYS[2], ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS: [만료 ZSET, 예약 해시]
+     * ARGV: [예약 ID, 재고 키 prefix, 예약 수량 키 prefix]
+     * 반환: 되돌린 상품 수 (이미 확정/해제된 예약이면 0)
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local items = redis.call('HGETALL', KEYS[2])
+            for i = 1, #items, 2 do
+                redis.call('INCRBY', ARGV[2] .. items[i], items[i + 1])
+                redis.call('DECRBY', ARGV[3] .. items[i], items[i + 1])
+            end
+            redis.call('DEL', KEYS[2])
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return #items / 2
+            """, Long.class);
+
+    /**
+     * 예약 수량을 미반영 수량으로 옮기고 예약 삭제
+     * KEYS: [만료 ZSET, 예약 해시, 미반영 상품 집합]
+     * ARGV: [예약 ID, 예약 수량 키 prefix, 미반영 수량 키 prefix]
+     * 반환: 1 = 예약 확정, 0 = 예약 없음 (이미 만료되어 해제됨)
+     */
+    private static final RedisScript<Long> COMMIT_SCRIPT = new DefaultRedisScript<>("""
+            local items = redis.call('HGETALL', KEYS[2])
+            for i = 1, #items, 2 do
+                redis.call('DECRBY', ARGV[2] .. items[i], items[i + 1])
+                redis.call('INCRBY', ARGV[3] .. items[i], items[i + 1])
+                redis.call('SADD', KEYS[3], items[i])
+            end
+            local existed = redis.call('DEL', KEYS[2])
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return existed
+            """, Long.class);
+
+    /**
+     * DB 재고에서 예약 수량과 미반영 수량을 빼서 Redis 재고를 채움 (0 미만이면 0)
+     * KEYS: [재고 키, 예약 수량 키, 미반영 수량 키]
+     * ARGV: [DB 재고, DB 조회 전에 읽은 미반영 수량, NX | SET]
+     * 미반영 수량은 DB 조회 전후 값 중 큰 값을 쓴다. 조회 사이에 DB 반영이 끝나 카운터가 줄었어도
+     * 읽은 DB 재고에는 아직 반영되지 않았을 수 있으므로 적게 빼는 쪽(초과 판매)을 피한다.
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            local reserved = tonumber(redis.call('GET', KEYS[2]) or '0')
+            local pending = math.max(tonumber(redis.call('GET', KEYS[3]) or '0'), tonumber(ARGV[2]))
+            local available = math.max(tonumber(ARGV[1]) - reserved - pending, 0)
+            if ARGV[3] == 'NX' then
+                redis.call('SET', KEYS[1], available, 'NX')
+            else
+                redis.call('SET', KEYS[1], available)
+            end
+            return available
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
+    private final StockCommitBuffer stockCommitBuffer;
+
+    /**
+     * 장바구니 전체 재고를 한 번에 예약 (all-or-nothing)
+     * @param quantities 한정판매 상품 ID -> 수량
+     * @return 이번 호출로 예약했으면 true, 같은 예약 ID의 예약이 이미 있거나 예약할 상품이 없으면 false
+     *         (false면 호출한 쪽이 롤백되어도 예약을 해제하면 안 된다)
+     * @throws ServiceException 재고가 부족한 상품이 하나라도 있으면 PRODUCT_STOCK_INSUFFICIENT
+     */
+    public boolean reserve(String reservationId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return false;
+        }
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+
+        // 재고 키가 없는 상품은 DB 값으로 채운 뒤 다시 시도 (상품 수만큼만)
+        for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+            long result = executeReserve(reservationId, productIds, quantities);
+            if (result == 0) {
+                return true;
+            }
+            if (result == productIds.size() + 1) {
+                log.info("[Stock] 이미 예약된 주문 - reservationId={}", reservationId);
+                return false;
+            }
+            if (result > 0) {
+                log.info("[Stock] 재고 부족 - reservationId={}, productId={}",
+                        reservationId, productIds.get((int) result - 1));
+                throw new ServiceException(ErrorCode.PRODUCT_STOCK_INSUFFICIENT);
+            }
+            loadStock(productIds.get((int) -result - 1));
+        }
+        throw new ServiceException(ErrorCode.PRODUCT_STOCK_INSUFFICIENT);
+    }
+
+    /**
+     * 결제 승인 후 예약 확정 - 차감 수량을 Redis의 미반영 수량으로 옮긴다. (StockCommitBuffer가 DB에 반영)
+     * 결제 대기 중 예약이 만료되어 이미 해제되었다면 재고를 다시 차감한다.
+     * (이미 결제가 끝났으므로 다시 차감하지 못해도 DB 반영은 진행하고 로그로 남긴다)
+     */
+    public void commit(String reservationId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Long committed = executeCommit(reservationId);
+
+        if (committed == null || committed == 0) {
+            log.warn("[Stock] 만료된 예약 확정, 재고 재차감 - reservationId={}", reservationId);
+            try {
+                reserve(reservationId, quantities);
+                executeCommit(reservationId);
+            } catch (ServiceException e) {
+                log.error("[Stock] 결제 완료 후 재고 부족 (초과 판매) - reservationId={}, items={}",
+                        reservationId, quantities);
+                // 예약 없이 DB에만 반영되므로 미반영 수량은 직접 올림
+                stockCommitBuffer.add(quantities);
+            }
+        }
+    }
+
+    // 결제 실패/취소 시 예약 해제
+    public void release(String reservationId) {
+        Long released = redisTemplate.execute(RELEASE_SCRIPT,
+                List.of(EXPIRY_KEY, reservationKey(reservationId)), reservationId, STOCK_KEY_PREFIX, RESERVED_KEY_PREFIX);
+        if (released != null && released > 0) {
+            log.info("[Stock] 예약 해제 - reservationId={}, items={}", reservationId, released);
+        }
+    }
+
+    // 결제 대기 시간이 지난 예약 해제 (스케줄러에서 호출)
+    public void releaseExpired() {
+        Set<String> expired = redisTemplate.opsForZSet().rangeByScore(
+                EXPIRY_KEY, 0, System.currentTimeMillis(), 0, RELEASE_BATCH_SIZE);
+        if (expired == null || expired.isEmpty()) {
+            return;
+        }
+        expired.forEach(this::release);
+        log.info("[Stock] 만료 예약 해제: {} 건", expired.size());
+    }
+
+    /**
+     * 판매자가 재고를 수정한 경우 Redis 재고를 새 DB 재고 기준으로 맞춤 (예약/미반영 수량 제외)
+     * 상시 판매로 바뀌면 재고 키를 지운다.
+     */
+    public void resetStock(Long productId, Integer stockQuantity) {
+        if (stockQuantity == null) {
+            redisTemplate.delete(stockKey(productId));
+        } else {
+            seedStock(productId, stockQuantity, 0, "SET");
+        }
+    }
+
+    private long executeReserve(String reservationId, List<Long> productIds, Map<Long, Integer> quantities) {
+        List<String> keys = new ArrayList<>(productIds.size() + 2);
+        keys.add(EXPIRY_KEY);
+        keys.add(reservationKey(reservationId));
+
+        List<String> args = new ArrayList<>(productIds.size() * 2 + 3);
+        args.add(reservationId);
+        args.add(String.valueOf(System.currentTimeMillis() + RESERVATION_TTL.toMillis()));
+        args.add(String.valueOf(RESERVATION_KEY_TTL.toSeconds()));
+
+        for (Long productId : productIds) {
+            keys.add(stockKey(productId));
+            args.add(productId.toString());
+            args.add(quantities.get(productId).toString());
+        }
+        for (Long productId : productIds) {
+            keys.add(reservedKey(productId));
+        }
+
+        Long result = redisTemplate.execute(RESERVE_SCRIPT, keys, args.toArray());
+        return result == null ? 0 : result;
+    }
+
+    private Long executeCommit(String reservationId) {
+        return redisTemplate.execute(COMMIT_SCRIPT,
+                List.of(EXPIRY_KEY, reservationKey(reservationId), StockCommitBuffer.PENDING_PRODUCTS_KEY),
+                reservationId, RESERVED_KEY_PREFIX, StockCommitBuffer.PENDING_KEY_PREFIX);
+    }
+
+    // Redis 재고 키가 없을 때 DB 재고로 채움 (동시에 채우는 경우 먼저 쓴 값 유지)
+    private void loadStock(Long productId) {
+        // DB 조회 전에 미반영 수량을 먼저 읽어 둠 (SEED_SCRIPT 참고)
+        String pendingBeforeRead = redisTemplate.opsForValue().get(StockCommitBuffer.pendingKey(productId));
+        Integer stockQuantity = productRepository.findById(productId)
+                .map(Product::getStockQuantity)
+                .orElseThrow(() -> new ServiceException(ErrorCode.PRODUCT_NOT_FOUND));
+        if (stockQuantity == null) {
+            throw new IllegalStateException("상시 판매 상품은 재고를 예약하지 않습니다. productId=" + productId);
+        }
+        seedStock(productId, stockQuantity, pendingBeforeRead == null ? 0 : Long.parseLong(pendingBeforeRead), "NX");
+    }
+
+    private void seedStock(Long productId, int stockQuantity, long pendingBeforeRead, String mode) {
+        redisTemplate.execute(SEED_SCRIPT,
+                List.of(stockKey(productId), reservedKey(productId), StockCommitBuffer.pendingKey(productId)),
+                String.valueOf(stockQuantity), String.valueOf(pendingBeforeRead), mode);
+    }
+
+    private String stockKey(Long productId) {
+        return STOCK_KEY_PREFIX + productId;
+    }
+
+    private String reservedKey(Long productId) {
+        return RESERVED_KEY_PREFIX + productId;
+    }
+
+    private String reservationKey(String reservationId) {
+        return RESERVATION_KEY_PREFIX + reservationId;
+    }
+}
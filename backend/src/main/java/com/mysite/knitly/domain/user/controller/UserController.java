@@ -15,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +81,9 @@ public class UserController {
 
         log.info("User info requested - userId: {}", user.getUserId());
 
+        // 인증 principal은 캐시된 기본 정보만 담고 있으므로 가입일 등은 DB에서 다시 읽음
+        user = userService.findById(user.getUserId());
+
         Map<String, Object> response = new HashMap<>();
         response.put("userId", user.getUserId());
         response.put("email", user.getEmail());
@@ -115,6 +119,7 @@ public class UserController {
     @PostMapping("/logout")
     public ResponseEntity<String> logout(
             @AuthenticationPrincipal User user,
+            HttpServletRequest request,
             HttpServletResponse response) {  // HttpServletResponse 추가!
 
         if (user == null) {
@@ -123,8 +128,9 @@ public class UserController {
 
         log.info("Logout requested - userId: {}", user.getUserId());
 
-        // 1. Redis에서 Refresh Token 삭제
-        authService.logout(user.getUserId());
+        // 1. Redis에서 이 기기의 Refresh Token 삭제
+        String refreshToken = cookieUtil.getCookie(request, REFRESH_TOKEN_COOKIE_NAME).orElse(null);
+        authService.logout(user.getUserId(), refreshToken);
         log.info("Refresh Token deleted from Redis - userId: {}", user.getUserId());
 
         // 2. HTTP-only 쿠키 삭제
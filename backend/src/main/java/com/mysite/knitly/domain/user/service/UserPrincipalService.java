@@ -0,0 +1,146 @@
+package com.mysite.knitly.domain.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.user.entity.Provider;
+import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.domain.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인증 필터용 사용자(principal) 캐시
+ *
+ * 요청마다 users 테이블을 조회하지 않도록 2단계로 캐시한다.
+ * - 로컬: 인스턴스 메모리, 짧은 TTL (다른 인스턴스의 탈퇴는 최대 이 시간만큼 늦게 반영)
+ * - Redis: auth:principal:{userId} 에 사용자 기본 정보 스냅샷(JSON)
+ * 회원탈퇴 시 커밋 후 두 단계 모두에서 제거한다.
+ *
+ * 캐시에서 꺼낸 User는 기본 필드(userId, socialId, email, name, provider)만 채워진 분리 객체다.
+ * 연관 엔티티 참조(FK)용으로는 충분하고, 그 외 정보가 필요한 곳은 UserService.findById 로 다시 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserPrincipalService {
+
+    private static final String KEY_PREFIX = "auth:principal:";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, LocalEntry> localCache = new ConcurrentHashMap<>();
+
+    @Value("${auth.principal.local-ttl-ms:30000}")
+    private long localTtlMillis;
+
+    @Value("${auth.principal.local-max-size:10000}")
+    private int localMaxSize;
+
+    @Value("${auth.principal.redis-ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    /**
+     * userId로 인증 사용자 조회 (로컬 -> Redis -> DB)
+     */
+    public User getPrincipal(Long userId) {
+        long now = System.currentTimeMillis();
+        LocalEntry entry = localCache.get(userId);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.snapshot().toUser();
+        }
+
+        UserSnapshot snapshot = readRedis(userId);
+        if (snapshot == null) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
+            snapshot = UserSnapshot.from(user);
+            writeRedis(snapshot);
+        }
+
+        // 상한을 넘으면 통째로 비움 (TTL이 짧아 금방 다시 채워짐)
+        if (localCache.size() >= localMaxSize) {
+            localCache.clear();
+        }
+        localCache.put(userId, new LocalEntry(snapshot, now + localTtlMillis));
+        return snapshot.toUser();
+    }
+
+    /**
+     * 사용자 캐시 제거
+     * 트랜잭션 안이면 커밋 후에 제거해서, 커밋 전의 행이 다시 캐시되지 않게 한다.
+     */
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        } else {
+            evictNow(userId);
+        }
+    }
+
+    private void evictNow(Long userId) {
+        localCache.remove(userId);
+        try {
+            redisTemplate.delete(KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.error("[Principal] Redis 캐시 제거 실패 - userId={}", userId, e);
+        }
+    }
+
+    // Redis 장애 시에는 DB 조회로 넘어감
+    private UserSnapshot readRedis(Long userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return json == null ? null : objectMapper.readValue(json, UserSnapshot.class);
+        } catch (Exception e) {
+            log.warn("[Principal] Redis 캐시 조회 실패 - userId={}", userId, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(UserSnapshot snapshot) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + snapshot.userId(),
+                    objectMapper.writeValueAsString(snapshot), Duration.ofSeconds(redisTtlSeconds));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            log.warn("[Principal] Redis 캐시 저장 실패 - userId={}", snapshot.userId(), e);
+        }
+    }
+
+    record UserSnapshot(Long userId, String socialId, String email, String name, Provider provider) {
+        static UserSnapshot from(User user) {
+            return new UserSnapshot(user.getUserId(), user.getSocialId(), user.getEmail(), user.getName(), user.getProvider());
+        }
+
+        // 요청마다 새 객체를 만들어 요청 간에 엔티티 인스턴스를 공유하지 않음
+        User toUser() {
+            return User.builder()
+                    .userId(userId)
+                    .socialId(socialId)
+                    .email(email)
+                    .name(name)
+                    .provider(provider)
+                    .build();
+        }
+    }
+
+    private record LocalEntry(UserSnapshot snapshot, long expiresAt) {
+    }
+}
@@ -18,6 +18,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserStoreRepository userStoreRepository;
+    private final UserPrincipalService userPrincipalService;
     /**
      * Google OAuth로 로그인한 사용자 처리
      * - 신규 사용자: 회원가입 처리
@@ -66,6 +67,7 @@ public class UserService {
     public void deleteUser(Long userId) {
         User user = findById(userId);
         userRepository.delete(user);
+        userPrincipalService.evict(userId);
         log.info("회원탈퇴 완료 - userId: {}, email: {}", userId, user.getEmail());
     }
 
@@ -1,12 +1,20 @@
 package com.mysite.knitly.global.config;
 
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -20,9 +28,33 @@ public class RabbitMQConfig {
     public static final String LIKE_ADD_ROUTING_KEY = "like.add.routingkey";
     public static final String LIKE_DELETE_ROUTING_KEY = "like.delete.routingkey";
 
+    // 찜 이벤트 배치 소비용 컨테이너 팩토리
+    public static final String LIKE_BATCH_CONTAINER_FACTORY = "likeBatchContainerFactory";
+
     public static final String DEAD_LETTER_EXCHANGE = "dead-letter.exchange";
     public static final String DEAD_LETTER_ROUTING_KEY_PREFIX = "dead."; // 라우팅 키 접두사
 
+    // --- 주문 이벤트 관련 상수 ---
+    public static final String ORDER_EXCHANGE = "order.exchange";
+    public static final String ORDER_COMPLETED_ROUTING_KEY = "order.completed";
+    public static final String ORDER_EMAIL_QUEUE = "order.email.queue";
+    public static final String ORDER_EMAIL_DLQ = "order.email.queue.dlq";
+
+    // --- 비동기 주문 접수 관련 상수 ---
+    // 장바구니의 가장 작은 상품 ID로 샤드 큐를 나누고, 샤드마다 소비자 하나가 도착 순서대로 처리 (부하 분산용)
+    public static final String ORDER_INTAKE_EXCHANGE = "order.intake.exchange";
+    public static final int ORDER_INTAKE_SHARDS = 4;
+    public static final String ORDER_INTAKE_QUEUE_PREFIX = "order.intake.queue.";
+    public static final String ORDER_INTAKE_ROUTING_KEY_PREFIX = "order.intake.";
+
+    public static String orderIntakeQueue(int shard) {
+        return ORDER_INTAKE_QUEUE_PREFIX + shard;
+    }
+
+    public static String orderIntakeRoutingKey(int shard) {
+        return ORDER_INTAKE_ROUTING_KEY_PREFIX + shard;
+    }
+
     @Bean
     public DirectExchange deadLetterExchange() {
         return new DirectExchange(DEAD_LETTER_EXCHANGE);
@@ -84,30 +116,92 @@ public class RabbitMQConfig {
 
     @Bean
     public TopicExchange orderExchange() {
-        return new TopicExchange("order.exchange");
+        return new TopicExchange(ORDER_EXCHANGE);
     }
 
     @Bean
     public Queue orderEmailQueue() {
-        return QueueBuilder.durable("order.email.queue")
+        return QueueBuilder.durable(ORDER_EMAIL_QUEUE)
                 .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
-                .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY_PREFIX + "order.email.queue")
+                .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY_PREFIX + ORDER_EMAIL_QUEUE)
                 .build();
     }
 
     @Bean
     public Queue orderEmailDeadLetterQueue() {
-        return QueueBuilder.durable("order.email.queue.dlq").build();
+        return QueueBuilder.durable(ORDER_EMAIL_DLQ).build();
     }
 
     @Bean
     public Binding orderEmailBinding(Queue orderEmailQueue, TopicExchange orderExchange) {
-        return BindingBuilder.bind(orderEmailQueue).to(orderExchange).with("order.completed");
+        return BindingBuilder.bind(orderEmailQueue).to(orderExchange).with(ORDER_COMPLETED_ROUTING_KEY);
     }
 
     @Bean
     public Binding orderEmailDlqBinding(Queue orderEmailDeadLetterQueue, DirectExchange deadLetterExchange) {
-        return BindingBuilder.bind(orderEmailDeadLetterQueue).to(deadLetterExchange).with(DEAD_LETTER_ROUTING_KEY_PREFIX + "order.email.queue");
+        return BindingBuilder.bind(orderEmailDeadLetterQueue).to(deadLetterExchange).with(DEAD_LETTER_ROUTING_KEY_PREFIX + ORDER_EMAIL_QUEUE);
+    }
+
+    @Bean
+    public DirectExchange orderIntakeExchange() {
+        return new DirectExchange(ORDER_INTAKE_EXCHANGE);
+    }
+
+    // 샤드별 작업 큐 + DLQ + 바인딩
+    @Bean
+    public Declarables orderIntakeQueues(DirectExchange orderIntakeExchange, DirectExchange deadLetterExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < ORDER_INTAKE_SHARDS; shard++) {
+            String queueName = orderIntakeQueue(shard);
+
+            Queue queue = QueueBuilder.durable(queueName)
+                    .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
+                    .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY_PREFIX + queueName)
+                    .build();
+            Queue deadLetterQueue = QueueBuilder.durable(queueName + ".dlq").build();
+
+            declarables.add(queue);
+            declarables.add(deadLetterQueue);
+            declarables.add(BindingBuilder.bind(queue).to(orderIntakeExchange).with(orderIntakeRoutingKey(shard)));
+            declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange)
+                    .with(DEAD_LETTER_ROUTING_KEY_PREFIX + queueName));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * 찜 이벤트 배치 리스너 컨테이너
+     * 최대 batchSize 건을 모으거나, 다음 메시지를 batchTimeout 동안 기다려도 없으면 모인 만큼 넘긴다.
+     * (user, product)별 조회 후 반영 순서를 지키기 위해 소비자는 하나만 둔다.
+     * 반영에 실패한 배치는 간격을 늘려 가며 다시 처리하고, 그래도 실패하면 DLQ가 아니라 큐로 되돌린다.
+     * (Redis에는 이미 반영된 찜이라 버리면 DB와 어긋남)
+     */
+    @Bean(LIKE_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory likeBatchContainerFactory(
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter converter,
+            @Value("${like.consumer.batch-size:200}") int batchSize,
+            @Value("${like.consumer.batch-timeout-ms:100}") long batchTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(converter);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(batchTimeoutMillis);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(5)
+                .backOffOptions(200, 2.0, 5_000)
+                .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                    throw new ImmediateRequeueAmqpException("Like batch failed after retries, requeued.", cause);
+                })
+                .build());
+        return factory;
     }
 
     // JSON 메시지 컨버터
@@ -1,26 +1,51 @@
 package com.mysite.knitly.global.email;
 
 import com.mysite.knitly.domain.order.dto.EmailNotificationDto;
+import com.mysite.knitly.global.config.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
+/**
+ * 주문 완료 메일 발송
+ * 주문 이벤트는 최소 한 번 전달(아웃박스 릴레이 재발행, 재전달)이므로
+ * 메시지 ID(order-event-{eventId})로 SET NX를 잡은 메시지만 발송해 중복 메일을 막는다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmailNotificationConsumer {
 
+    private static final String SENT_KEY_PREFIX = "email:order-sent:";
+    private static final Duration SENT_TTL = Duration.ofDays(7);
+
     private final EmailService emailService;
+    private final StringRedisTemplate redisTemplate;
 
-    @RabbitListener(queues = "order.email.queue")
-    public void receiveOrderCompletionMessage(EmailNotificationDto emailDto) {
+    @RabbitListener(queues = RabbitMQConfig.ORDER_EMAIL_QUEUE)
+    public void receiveOrderCompletionMessage(EmailNotificationDto emailDto,
+                                              @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
         log.info("Received message for order: {}", emailDto.orderId());
+        String sentKey = messageId == null ? null : SENT_KEY_PREFIX + messageId;
+        if (sentKey != null && !Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(sentKey, "1", SENT_TTL))) {
+            log.info("Skip duplicate email message: {}, order: {}", messageId, emailDto.orderId());
+            return;
+        }
         try {
             emailService.sendOrderConfirmationEmail(emailDto);
             log.info("Successfully sent email for order: {}", emailDto.orderId());
         } catch (Exception e) {
             log.error("Failed to send email for order: {}. Error: {}", emailDto.orderId(), e.getMessage());
+            // 발송하지 못했으므로 표시를 지워 재전달 시 다시 발송되게 함
+            if (sentKey != null) {
+                redisTemplate.delete(sentKey);
+            }
             // 🚨 예외를 다시 던져서 RabbitMQ가 재시도하거나 DLQ로 보내도록 함
             throw new RuntimeException("Email sending failed after processing.", e);
         }
@@ -10,6 +10,7 @@ public enum ErrorCode {
 
     // User 1000
     USER_NOT_FOUND("1001", HttpStatus.NOT_FOUND, "유저를 찾을 수 없습니다."),
+    REFRESH_TOKEN_ROTATION_IN_PROGRESS("1101", HttpStatus.CONFLICT, "다른 요청이 토큰을 갱신했습니다. 잠시 후 다시 시도해주세요."),
 
     // Product 2000
     PRODUCT_NOT_FOUND("2001", HttpStatus.NOT_FOUND, "상품을 찾을 수 없습니다."),
@@ -17,6 +18,8 @@ public enum ErrorCode {
     PRODUCT_DELETE_UNAUTHORIZED("2003", HttpStatus.FORBIDDEN, "상품 삭제 권한이 없습니다."),
     PRODUCT_ALREADY_DELETED("2004", HttpStatus.BAD_REQUEST, "이미 삭제된 상품입니다."),
     PRODUCT_STOCK_INSUFFICIENT("2005", HttpStatus.BAD_REQUEST, "상품 재고보다 많은 수량을 주문할 수 없습니다. 남은 재고를 확인해주세요."),
+    PRODUCT_INVALID_CURSOR("2006", HttpStatus.BAD_REQUEST, "잘못된 커서 값입니다."),
+    PRODUCT_CURSOR_SORT_NOT_SUPPORTED("2007", HttpStatus.BAD_REQUEST, "커서 조회를 지원하지 않는 정렬입니다."),
     LIKE_ALREADY_EXISTS("2401", HttpStatus.CONFLICT, "이미 찜한 상품입니다."),
     LIKE_NOT_FOUND("2402", HttpStatus.NOT_FOUND, "삭제할 찜을 찾을 수 없습니다."),
 
@@ -24,6 +27,8 @@ public enum ErrorCode {
     OUT_OF_STOCK("3001", HttpStatus.BAD_REQUEST, "품절된 상품입니다."),
     ORDER_NOT_FOUND("3002", HttpStatus.NOT_FOUND, "주문을 찾을 수 없습니다."),
     ORDER_ITEM_NOT_FOUND("3003", HttpStatus.NOT_FOUND, "주문 상품을 찾을 수 없습니다."),
+    ORDER_TICKET_NOT_FOUND("3004", HttpStatus.NOT_FOUND, "주문 접수 내역을 찾을 수 없습니다."),
+    ORDER_INTAKE_UNAVAILABLE("3005", HttpStatus.SERVICE_UNAVAILABLE, "주문 접수가 일시적으로 원활하지 않습니다. 잠시 후 다시 시도해주세요."),
 
     // Post 4000
     POST_NOT_FOUND("4001", HttpStatus.NOT_FOUND, "게시글을 찾을 수 없습니다."),
@@ -109,9 +114,15 @@ public enum ErrorCode {
     PAYMENT_CANCEL_API_FAILED("8007", HttpStatus.INTERNAL_SERVER_ERROR, "결제 취소 API 호출에 실패했습니다."),
     PAYMENT_CANCEL_FAILED("8008", HttpStatus.INTERNAL_SERVER_ERROR, "결제 취소에 실패했습니다."),
     PAYMENT_UNAUTHORIZED_ACCESS("8009", HttpStatus.FORBIDDEN, "결제 정보에 접근할 권한이 없습니다."),
+    PAYMENT_GATEWAY_UNAVAILABLE("8010", HttpStatus.SERVICE_UNAVAILABLE, "결제 서비스가 일시적으로 원활하지 않습니다. 잠시 후 다시 시도해주세요."),
+    PAYMENT_GATEWAY_TIMEOUT("8011", HttpStatus.GATEWAY_TIMEOUT, "결제 서비스 응답이 지연되고 있습니다."),
+    PAYMENT_CONFIRM_PENDING("8012", HttpStatus.ACCEPTED, "결제 승인 결과를 확인하고 있습니다. 잠시 후 주문 내역에서 확인해주세요."),
+    PAYMENT_CONFIRM_IN_PROGRESS("8013", HttpStatus.CONFLICT, "결제 승인이 진행 중인 주문입니다."),
     // System 9000
 
-    LOCK_ACQUISITION_FAILED("9001", HttpStatus.INTERNAL_SERVER_ERROR, "락 획득에 실패했습니다. 잠시 후 다시 시도해주세요.");
+    LOCK_ACQUISITION_FAILED("9001", HttpStatus.INTERNAL_SERVER_ERROR, "락 획득에 실패했습니다. 잠시 후 다시 시도해주세요."),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("9002", HttpStatus.CONFLICT, "같은 요청을 처리 중입니다. 잠시 후 다시 시도해주세요."),
+    IDEMPOTENCY_KEY_REUSED("9003", HttpStatus.UNPROCESSABLE_ENTITY, "다른 요청에 이미 사용된 Idempotency-Key 입니다.");
 
     private final String code;
     private final HttpStatus status;
@@ -0,0 +1,40 @@
+package com.mysite.knitly.global.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mysite.knitly.global.exception.ErrorCode;
+
+/**
+ * Idempotency-Key 별 처리 상태 (Redis에 JSON으로 저장)
+ * @param owner       처리 중 마커를 만든 요청의 토큰 (실패 시 본인 마커만 지우기 위함)
+ * @param fingerprint 요청 본문 해시 (같은 키를 다른 요청에 재사용했는지 확인)
+ * @param response    완료된 응답 본문 JSON (처리 중이면 null)
+ * @param pendingCode 접수는 됐지만 결과가 정해지지 않은 응답(202)의 에러 코드 (예: 결제 승인 결과 확인 중)
+ */
+public record IdempotencyRecord(
+        String owner,
+        String fingerprint,
+        String response,
+        ErrorCode pendingCode
+) {
+    public static IdempotencyRecord inFlight(String owner, String fingerprint) {
+        return new IdempotencyRecord(owner, fingerprint, null, null);
+    }
+
+    public IdempotencyRecord completed(String response) {
+        return new IdempotencyRecord(owner, fingerprint, response, null);
+    }
+
+    public IdempotencyRecord pending(ErrorCode errorCode) {
+        return new IdempotencyRecord(owner, fingerprint, null, errorCode);
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return response != null;
+    }
+
+    @JsonIgnore
+    public boolean isPending() {
+        return pendingCode != null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.mysite.knitly.global.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 처리
+ *
+ * 같은 키로 들어온 요청은 한 번만 실행하고, 결과 응답을 Redis에 저장해 재시도 요청에 그대로 돌려준다.
+ * - 처음 요청: SET NX로 처리 중 마커를 남기고 실행, 완료되면 응답을 저장 (24시간 보관)
+ * - 처리 중에 들어온 중복 요청: 먼저 들어온 요청이 끝날 때까지 기다렸다가 같은 응답을 반환
+ * - 실행이 실패하면 마커를 지워 다음 재시도가 다시 실행할 수 있게 한다
+ * - 접수는 됐지만 결과가 정해지지 않은 응답(202, 예: PAYMENT_CONFIRM_PENDING)은 실패가 아니므로
+ *   마커를 지우지 않고 그 응답을 저장한다. 재시도가 다시 실행되면 이미 진행 중인 결제에
+ *   PAYMENT_ALREADY_EXISTS 를 받게 되므로, 같은 202 응답으로 답하고 결과는 주문 내역에서 확인하게 한다.
+ * - 같은 키를 다른 요청 본문에 재사용하면 IDEMPOTENCY_KEY_REUSED
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final Duration IN_FLIGHT_TTL = Duration.ofSeconds(60);
+    private static final Duration RESULT_TTL = Duration.ofHours(24);
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(10);
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    // 처리 중 마커가 본인 것일 때만 삭제
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value and string.find(value, ARGV[1], 1, true) then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param scope          키 공간 (API별, 필요하면 사용자별로 구분)
+     * @param idempotencyKey 클라이언트가 보낸 키 (없으면 그냥 실행)
+     * @param request        요청 본문 (키 재사용 확인용)
+     */
+    public <T> T execute(String scope, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String key = KEY_PREFIX + scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT.toMillis();
+        long backoff = 20;
+
+        while (true) {
+            IdempotencyRecord marker = IdempotencyRecord.inFlight(UUID.randomUUID().toString(), fingerprint);
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, write(marker), IN_FLIGHT_TTL))) {
+                return executeAndStore(key, marker, action);
+            }
+
+            IdempotencyRecord record = read(key);
+            if (record != null) {
+                if (!record.fingerprint().equals(fingerprint)) {
+                    throw new ServiceException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+                }
+                if (record.isCompleted()) {
+                    log.info("[Idempotency] 저장된 응답 반환 - key={}", key);
+                    return read(record.response(), responseType);
+                }
+                if (record.isPending()) {
+                    log.info("[Idempotency] 저장된 처리 중 응답 반환 - key={}, code={}", key, record.pendingCode());
+                    throw new ServiceException(record.pendingCode());
+                }
+            }
+
+            if (System.currentTimeMillis() > deadline) {
+                throw new ServiceException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+            }
+            sleep(backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private <T> T executeAndStore(String key, IdempotencyRecord marker, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (ServiceException e) {
+            if (e.getErrorCode().getStatus() == HttpStatus.ACCEPTED) {
+                redisTemplate.opsForValue().set(key, write(marker.pending(e.getErrorCode())), RESULT_TTL);
+            } else {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(key), marker.owner());
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), marker.owner());
+            throw e;
+        }
+        redisTemplate.opsForValue().set(key, write(marker.completed(write(response))), RESULT_TTL);
+        return response;
+    }
+
+    private IdempotencyRecord read(String key) {
+        String json = redisTemplate.opsForValue().get(key);
+        return json == null ? null : read(json, IdempotencyRecord.class);
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotency 레코드 역직렬화 실패", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotency 레코드 직렬화 실패", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+    }
+}
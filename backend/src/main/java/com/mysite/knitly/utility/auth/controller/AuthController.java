@@ -65,6 +65,10 @@ public class AuthController {
             @ApiResponse(
                     responseCode = "401",
                     description = "만료되었거나 유효하지 않은 토큰"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "같은 기기의 다른 요청이 먼저 토큰을 갱신함 (쿠키 유지, 잠시 후 재시도)"
             )
     })
     @PostMapping("/refresh")
@@ -83,15 +87,11 @@ public class AuthController {
             return ResponseEntity.badRequest().build();
         }
 
-        log.debug("Refresh Token found in cookie: {}...", refreshToken.substring(0, 20));
-
         try {
             // 2. 새로운 토큰 발급
             TokenRefreshResponse tokenResponse = authService.refreshAccessToken(refreshToken);
 
             log.info("New tokens created successfully");
-            log.debug("New Access Token: {}", tokenResponse.getAccessToken());
-            log.debug("New Refresh Token: {}", tokenResponse.getRefreshToken());
 
             // 3. 새로운 Refresh Token을 쿠키에 저장
             cookieUtil.addCookie(
@@ -106,6 +106,7 @@ public class AuthController {
             return ResponseEntity.ok(tokenResponse);
 
         } catch (IllegalArgumentException e) {
+            // 동시 갱신(CONCURRENT)은 ServiceException(409)으로 전달되어 여기서 쿠키를 지우지 않음
             log.error("Token refresh failed: {}", e.getMessage());
 
             // 실패 시 쿠키 삭제
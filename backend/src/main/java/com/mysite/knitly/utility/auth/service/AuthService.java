@@ -1,9 +1,14 @@
 package com.mysite.knitly.utility.auth.service;
 
 import com.mysite.knitly.domain.user.service.UserService;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
 import com.mysite.knitly.utility.auth.dto.TokenRefreshResponse;
 import com.mysite.knitly.utility.jwt.JwtProperties;
 import com.mysite.knitly.utility.jwt.JwtProvider;
+import com.mysite.knitly.utility.jwt.VerifiedToken;
+import com.mysite.knitly.utility.jwt.VerifiedTokenCache;
+import com.mysite.knitly.utility.redis.RefreshTokenRotationResult;
 import com.mysite.knitly.utility.redis.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,35 +24,44 @@ public class AuthService {
     private final RefreshTokenService refreshTokenService;
     private final JwtProperties jwtProperties;
     private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     /**
      * Refresh Token으로 Access Token 갱신
+     * 같은 기기의 다른 요청이 방금 교체한 경우(CONCURRENT)는 탈취가 아니므로 ServiceException(409)으로 구분해서,
+     * 컨트롤러가 쿠키를 지우지 않게 한다 (곧 도착할 새 쿠키로 다시 시도).
      */
     public TokenRefreshResponse refreshAccessToken(String refreshToken) {
-        // 1. Refresh Token 유효성 검증
-        if (!jwtProvider.validateToken(refreshToken)) {
+        // 1. Refresh Token 유효성 검증 + userId, deviceId 추출
+        VerifiedToken verified = jwtProvider.verify(refreshToken);
+        if (verified == null || verified.deviceId() == null) {
             log.info("유효하지 않은 Refresh Token입니다.");
             throw new IllegalArgumentException("유효하지 않은 Refresh Token입니다.");
         }
-
-        // 2. Refresh Token에서 userId 추출
-        Long userId = jwtProvider.getUserIdFromToken(refreshToken);
+        Long userId = verified.userId();
         log.info("Token refresh requested - userId: {}", userId);
 
-        // 3. Redis에 저장된 Refresh Token과 비교
-        if (!refreshTokenService.validateRefreshToken(userId, refreshToken)) {
+        // 2. 새로운 Refresh Token 생성 (RTR - Refresh Token Rotation, 같은 기기 유지)
+        String newRefreshToken = jwtProvider.createRefreshToken(userId, verified.deviceId());
+
+        // 3. Redis에 저장된 기기 토큰과 비교 후 교체 (Lua 한 번)
+        RefreshTokenRotationResult result =
+                refreshTokenService.rotate(userId, verified.deviceId(), refreshToken, newRefreshToken);
+        if (result == RefreshTokenRotationResult.REUSED) {
+            verifiedTokenCache.evictUser(userId);
+            throw new IllegalArgumentException("이미 사용된 Refresh Token입니다. 모든 기기에서 로그아웃됩니다.");
+        }
+        if (result == RefreshTokenRotationResult.CONCURRENT) {
+            log.info("Concurrent token refresh - userId: {}", userId);
+            throw new ServiceException(ErrorCode.REFRESH_TOKEN_ROTATION_IN_PROGRESS);
+        }
+        if (result != RefreshTokenRotationResult.ROTATED) {
             throw new IllegalArgumentException("Refresh Token이 일치하지 않습니다.");
         }
 
         // 4. 새로운 Access Token 생성
         String newAccessToken = jwtProvider.createAccessToken(userId);
 
-        // 5. 새로운 Refresh Token 생성 (RTR - Refresh Token Rotation)
-        String newRefreshToken = jwtProvider.createRefreshToken(userId);
-
-        // 6. 새로운 Refresh Token을 Redis에 저장 (기존 토큰 덮어쓰기)
-        refreshTokenService.saveRefreshToken(userId, newRefreshToken);
-
         log.info("Token refreshed successfully - userId: {}", userId);
 
         return TokenRefreshResponse.of(
@@ -59,9 +73,16 @@ public class AuthService {
 
     /**
      * 로그아웃
+     * 쿠키의 Refresh Token으로 기기를 알 수 있으면 그 기기만, 아니면 모든 기기 로그아웃
      */
-    public void logout(Long userId) {
-        refreshTokenService.deleteRefreshToken(userId);
+    public void logout(Long userId, String refreshToken) {
+        VerifiedToken verified = refreshToken != null ? jwtProvider.verify(refreshToken) : null;
+        if (verified != null && userId.equals(verified.userId()) && verified.deviceId() != null) {
+            refreshTokenService.deleteRefreshToken(userId, verified.deviceId());
+        } else {
+            refreshTokenService.deleteRefreshToken(userId);
+        }
+        verifiedTokenCache.evictUser(userId);
         log.info("User logged out - userId: {}", userId);
     }
 
@@ -77,6 +98,7 @@ public class AuthService {
 
         // 2. DB에서 사용자 삭제
         userService.deleteUser(userId);
+        verifiedTokenCache.evictUser(userId);
 
         log.info("Account deleted - userId: {}", userId);
     }
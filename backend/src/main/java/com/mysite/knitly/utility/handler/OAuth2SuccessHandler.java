@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -73,16 +74,15 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         // 스토어 중복 생성 방지
         userService.ensureUserStore(user);
 
-        // 4. JWT 토큰 발급
-        TokenResponse tokens = jwtProvider.createTokens(user.getUserId());
+        // 4. JWT 토큰 발급 (로그인마다 새 기기 식별자)
+        String deviceId = UUID.randomUUID().toString();
+        TokenResponse tokens = jwtProvider.createTokens(user.getUserId(), deviceId);
 
         log.info("=== JWT Tokens Created ===");
-        log.info("Access Token: {}", tokens.getAccessToken());
-        log.info("Refresh Token: {}", tokens.getRefreshToken());
         log.info("Expires In: {} seconds", tokens.getExpiresIn());
 
         // 5. Refresh Token을 Redis에 저장
-        refreshTokenService.saveRefreshToken(user.getUserId(), tokens.getRefreshToken());
+        refreshTokenService.saveRefreshToken(user.getUserId(), deviceId, tokens.getRefreshToken());
         log.info("Refresh Token saved to Redis");
 
         // 6. Refresh Token을 HTTP-only 쿠키에 저장
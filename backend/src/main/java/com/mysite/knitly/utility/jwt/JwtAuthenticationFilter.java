@@ -1,13 +1,13 @@
 package com.mysite.knitly.utility.jwt;
 
 import com.mysite.knitly.domain.user.entity.User;
-import com.mysite.knitly.domain.user.service.UserService;
+import com.mysite.knitly.domain.user.service.UserPrincipalService;
+import com.mysite.knitly.utility.logging.AuthTrace;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,32 +18,30 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtProvider jwtProvider;
-    private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserPrincipalService userPrincipalService;
+    private final AuthTrace authTrace;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        long startNanos = System.nanoTime();
         try {
             // 1. 요청 헤더에서 JWT 토큰 추출
             String token = extractTokenFromRequest(request);
 
-            log.info("===> JWT Filter: token = {}", token != null ? "EXISTS" : "NULL");
+            // 2. 토큰 검증 + userId 추출 (이미 검증한 토큰이면 캐시에서)
+            Long userId = token != null ? verifiedTokenCache.getUserIdIfValid(token) : null;
 
-            if (token != null && jwtProvider.validateToken(token)) {
-                log.info("===> JWT Valid!");
-                // 2. 토큰에서 userId 추출
-                Long userId = jwtProvider.getUserIdFromToken(token);
-
-                // 3. userId로 사용자 조회
-                User user = userService.findById(userId);
+            if (userId != null) {
+                // 3. userId로 사용자 조회 (로컬/Redis 캐시, 없을 때만 DB)
+                User user = userPrincipalService.getPrincipal(userId);
 
                 // 4. Spring Security 인증 객체 생성
                 UsernamePasswordAuthenticationToken authentication =
@@ -60,13 +58,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // 5. SecurityContext에 인증 정보 저장
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.debug("JWT authenticated - userId: {}", userId);
+                authTrace.trace(request, "jwt.authenticated", event -> event
+                        .addKeyValue("userId", userId)
+                        .addKeyValue("elapsedMicros", (System.nanoTime() - startNanos) / 1_000));
             } else {
-                log.warn("===> JWT Invalid or null!");
+                authTrace.trace(request, token != null ? "jwt.invalid" : "jwt.absent");
             }
 
         } catch (Exception e) {
-            log.error("JWT authentication failed: {}", e.getMessage());
+            // 탈퇴한 사용자의 토큰 등 요청마다 반복될 수 있으므로 샘플링 추적으로만 남김
+            authTrace.trace(request, "jwt.error", event -> event
+                    .addKeyValue("error", e.getClass().getSimpleName())
+                    .addKeyValue("message", e.getMessage()));
             // 인증 실패해도 다음 필터로 진행 (Spring Security가 처리)
         }
 
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
@@ -12,6 +15,10 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
 
     private String secretKey;
+    // 현재 서명 키의 식별자 (JWT 헤더의 kid)
+    private String keyId = "default";
+    // 키 교체 후에도 기존 토큰을 검증하기 위한 이전 키 (kid -> secret), 서명에는 쓰지 않음
+    private Map<String, String> previousKeys = new HashMap<>();
     private long accessTokenExpireSeconds;
     private long refreshTokenExpireSeconds;
 }
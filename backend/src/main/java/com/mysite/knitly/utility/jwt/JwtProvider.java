@@ -3,27 +3,70 @@ package com.mysite.knitly.utility.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtProvider {
 
+    // Refresh Token의 기기 식별자 claim (로그인마다 새로 발급, 갱신 시 유지)
+    public static final String DEVICE_ID_CLAIM = "did";
+
     private final JwtProperties jwtProperties;
 
+    // 키와 파서는 기동 시 한 번만 만든다 (JwtParser는 불변이라 스레드 간 공유 가능)
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = toKey(jwtProperties.getSecretKey());
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        jwtProperties.getPreviousKeys().forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        keys.put(jwtProperties.getKeyId(), signingKey);
+        verificationKeys = Map.copyOf(keys);
+
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return findVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
-     * SecretKey 생성
+     * kid에 맞는 검증 키
+     * kid가 없는 토큰(키 교체 기능 이전 발급분)은 현재 키로 검증한다.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private SecretKey findVerificationKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("알 수 없는 JWT 키 식별자입니다: " + keyId);
+        }
+        return key;
     }
 
     /**
@@ -34,69 +77,80 @@ public class JwtProvider {
         Date expiryDate = new Date(now.getTime() + jwtProperties.getAccessTokenExpireSeconds() * 1000);
 
         return Jwts.builder()
+                .header().keyId(jwtProperties.getKeyId()).and()
                 .subject(userId.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
      * Refresh Token 생성
+     * jti를 넣어 같은 시각에 발급해도 토큰(과 digest)이 매번 달라지게 한다.
      */
-    public String createRefreshToken(Long userId) {
+    public String createRefreshToken(Long userId, String deviceId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getRefreshTokenExpireSeconds() * 1000);
 
         return Jwts.builder()
+                .header().keyId(jwtProperties.getKeyId()).and()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
+                .claim(DEVICE_ID_CLAIM, deviceId)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * 토큰에서 userId 추출
+     * 토큰 검증 + claims 반환 (서명 검증은 한 번만)
+     * 유효하지 않으면 JwtException / IllegalArgumentException
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * 토큰을 검증하고 userId 반환
+     * 유효하지 않은 토큰이면 null
      */
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+    public Long getUserIdIfValid(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.userId() : null;
     }
 
     /**
-     * 토큰 유효성 검증
+     * 토큰을 검증하고 userId + 만료 시각 반환
+     * 유효하지 않은 토큰이면 null (만료/위조 토큰은 요청마다 올 수 있으므로 DEBUG로만 남김)
      */
-    public boolean validateToken(String token) {
+    public VerifiedToken verify(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parseClaims(token);
+            if (claims.getExpiration() == null) {
+                throw new UnsupportedJwtException("만료 시각이 없는 토큰입니다.");
+            }
+            return new VerifiedToken(Long.parseLong(claims.getSubject()),
+                    claims.get(DEVICE_ID_CLAIM, String.class), claims.getExpiration().getTime());
         } catch (SignatureException | MalformedJwtException e) {
-            log.error("잘못된 JWT 서명입니다.");
+            log.debug("잘못된 JWT 서명입니다.");
         } catch (ExpiredJwtException e) {
-            log.error("만료된 JWT 토큰입니다.");
+            log.debug("만료된 JWT 토큰입니다.");
         } catch (UnsupportedJwtException e) {
-            log.error("지원되지 않는 JWT 토큰입니다.");
+            log.debug("지원되지 않는 JWT 토큰입니다.");
         } catch (IllegalArgumentException e) {
-            log.error("JWT 토큰이 잘못되었습니다.");
+            log.debug("JWT 토큰이 잘못되었습니다.");
         }
-        return false;
+        return null;
     }
 
     /**
-     * Access Token과 Refresh Token을 함께 생성
+     * Access Token과 Refresh Token을 함께 생성 (로그인 시)
      */
-    public TokenResponse createTokens(Long userId) {
+    public TokenResponse createTokens(Long userId, String deviceId) {
         String accessToken = createAccessToken(userId);
-        String refreshToken = createRefreshToken(userId);
+        String refreshToken = createRefreshToken(userId, deviceId);
 
         return TokenResponse.of(
                 accessToken,
@@ -0,0 +1,9 @@
+package com.mysite.knitly.utility.jwt;
+
+/**
+ * 서명 검증을 마친 토큰 정보
+ * deviceId: Refresh Token의 기기(토큰 패밀리) 식별자, Access Token이면 null
+ * expiresAtMillis: 토큰 만료 시각 (epoch millis)
+ */
+public record VerifiedToken(Long userId, String deviceId, long expiresAtMillis) {
+}
@@ -0,0 +1,108 @@
+package com.mysite.knitly.utility.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 검증된 Access Token 캐시 (근사 LRU)
+ *
+ * 같은 토큰이 만료 전까지 반복해서 들어오므로, 한 번 검증한 토큰은 digest(SHA-256) -> (userId, 만료 시각)으로
+ * 기억해 두고 이후 요청에서는 서명 검증/파싱을 건너뛴다.
+ * - 원문 토큰은 보관하지 않는다
+ * - 만료 시각이 지난 항목은 조회 시 제거, 용량을 넘으면 가장 오래 안 쓴 항목부터 제거
+ * - 로그아웃/회원탈퇴 시 해당 사용자의 항목 제거 (이 인스턴스 한정)
+ *
+ * 모든 요청이 거치는 경로라 전역 락을 두지 않는다.
+ * 조회/저장은 ConcurrentHashMap에 맡기고 마지막 접근 시각만 기록하며,
+ * 용량을 넘으면 한 스레드만(tryLock) 만료 항목과 오래 안 쓴 항목을 일괄 제거한다.
+ * 한 번에 용량의 10%를 비우므로 제거 비용(정렬)은 저장 여러 번에 나눠진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private final JwtProvider jwtProvider;
+
+    @Value("${custom.jwt.verified-cache-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * 토큰을 검증하고 userId 반환 (캐시 적중 시 서명 검증 생략)
+     * 유효하지 않은 토큰이면 null
+     */
+    public Long getUserIdIfValid(String token) {
+        String digest = TokenDigest.sha256(token);
+        long now = System.currentTimeMillis();
+
+        Entry cached = cache.get(digest);
+        if (cached != null) {
+            if (cached.token.expiresAtMillis() > now) {
+                cached.lastAccess = System.nanoTime();
+                return cached.token.userId();
+            }
+            cache.remove(digest, cached);
+        }
+
+        VerifiedToken verified = jwtProvider.verify(token);
+        if (verified == null || verified.expiresAtMillis() <= now) {
+            return null;
+        }
+        cache.put(digest, new Entry(verified));
+        if (cache.size() > maxSize) {
+            evict();
+        }
+        return verified.userId();
+    }
+
+    /**
+     * 사용자의 캐시 항목 제거 (로그아웃/회원탈퇴)
+     */
+    public void evictUser(Long userId) {
+        cache.values().removeIf(entry -> entry.token.userId().equals(userId));
+    }
+
+    // 이미 다른 스레드가 비우는 중이면 기다리지 않고 넘어감
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(entry -> entry.token.expiresAtMillis() <= now);
+
+            int excess = cache.size() - (maxSize - maxSize / 10);
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<String, Entry>> oldest = cache.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .limit(excess)
+                    .toList();
+            oldest.forEach(e -> cache.remove(e.getKey(), e.getValue()));
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final VerifiedToken token;
+        private volatile long lastAccess; // 근사 LRU용, 경합 시 일부 갱신이 덮여도 무방
+
+        private Entry(VerifiedToken token) {
+            this.token = token;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mysite.knitly.utility.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * 인증 필터용 샘플링 추적 로그
+ *
+ * 요청마다 INFO 로그를 남기는 대신, 요청 단위로 한 번 샘플링 여부를 정하고
+ * 샘플링된 요청만 "auth.trace" 로거에 DEBUG + key-value 형태로 남긴다.
+ * - 샘플링 여부는 요청 속성에 저장되어 같은 요청의 모든 필터가 같은 결정을 따른다
+ * - 로거가 꺼져 있거나 샘플링되지 않으면 필드 생성 함수를 호출하지 않는다 (지연 생성)
+ * - 토큰 원문 등 인증 정보는 남기지 않는다
+ * 출력은 logback-spring.xml 의 비동기 appender 로 나간다.
+ */
+@Component
+public class AuthTrace {
+
+    private static final Logger log = LoggerFactory.getLogger("auth.trace");
+    private static final String SAMPLED_ATTRIBUTE = AuthTrace.class.getName() + ".SAMPLED";
+
+    // 0.0 ~ 1.0
+    @Value("${auth.trace.sample-rate:0.01}")
+    private double sampleRate;
+
+    /**
+     * 이 요청이 추적 대상인지 (요청당 한 번만 결정)
+     */
+    public boolean isSampled(HttpServletRequest request) {
+        Object decided = request.getAttribute(SAMPLED_ATTRIBUTE);
+        if (decided != null) {
+            return (Boolean) decided;
+        }
+        boolean sampled = log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+        return sampled;
+    }
+
+    public void trace(HttpServletRequest request, String event) {
+        trace(request, event, UnaryOperator.identity());
+    }
+
+    /**
+     * 샘플링된 요청에만 이벤트 기록
+     * fields: key-value 추가 (샘플링된 경우에만 호출됨)
+     */
+    public void trace(HttpServletRequest request, String event, UnaryOperator<LoggingEventBuilder> fields) {
+        if (!isSampled(request)) {
+            return;
+        }
+        fields.apply(log.atDebug()
+                        .setMessage(event)
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI()))
+                .log();
+    }
+}
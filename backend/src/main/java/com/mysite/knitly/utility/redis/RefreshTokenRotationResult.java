@@ -0,0 +1,11 @@
+package com.mysite.knitly.utility.redis;
+
+/**
+ * Refresh Token 교체 결과
+ */
+public enum RefreshTokenRotationResult {
+    ROTATED,    // 교체 완료
+    NOT_FOUND,  // 저장된 기기 토큰 없음 (로그아웃/만료/기기 수 초과로 제거됨)
+    CONCURRENT, // 방금 교체된 직전 토큰 (동시 갱신 요청), 패밀리는 유지
+    REUSED      // 이미 교체된 토큰 재사용 -> 패밀리 전체 폐기
+}
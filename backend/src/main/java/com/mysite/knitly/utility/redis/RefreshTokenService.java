@@ -1,13 +1,30 @@
 package com.mysite.knitly.utility.redis;
 
 import com.mysite.knitly.utility.jwt.JwtProperties;
+import com.mysite.knitly.utility.jwt.TokenDigest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
-
+import java.util.List;
+
+/**
+ * Refresh Token 패밀리 저장소
+ *
+ * Key: RT:family:{userId} (Hash)
+ * Field: deviceId (로그인마다 새로 발급되어 Refresh Token의 did claim에 들어감)
+ * Value: "현재 토큰 digest|직전 토큰 digest|마지막 교체 시각(ms)"
+ * TTL: Refresh Token 만료 시간 (발급/교체 시 연장)
+ *
+ * - 토큰 원문 대신 SHA-256 digest만 저장하고, 기기 수는 max-devices 로 제한한다 (초과 시 가장 오래된 기기 제거)
+ * - 교체(check-and-rotate)는 Lua 스크립트 한 번으로 처리한다
+ * - 이미 교체된 토큰이 다시 오면 탈취로 보고 사용자의 패밀리 전체를 폐기한다
+ *   (단, 직전 토큰이 grace 시간 안에 다시 오면 동시 갱신으로 보고 거절만 함)
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,69 +33,120 @@ public class RefreshTokenService {
     private final RedisTemplate<String, String> redisTemplate;
     private final JwtProperties jwtProperties;
 
-    private static final String REFRESH_TOKEN_PREFIX = "RT:";
+    private static final String REFRESH_TOKEN_PREFIX = "RT:family:";
 
-    /**
-     * Refresh Token을 Redis에 저장
-     * Key: RT:{userId}
-     * Value: refreshToken
-     * TTL: 7일
-     */
-    public void saveRefreshToken(Long userId, String refreshToken) {
-        String key = REFRESH_TOKEN_PREFIX + userId.toString();
+    @Value("${custom.jwt.max-devices:10}")
+    private int maxDevices;
 
-        redisTemplate.opsForValue().set(
-                key,
-                refreshToken,
-                jwtProperties.getRefreshTokenExpireSeconds(),
-                TimeUnit.SECONDS
-        );
+    @Value("${custom.jwt.refresh-reuse-grace-ms:10000}")
+    private long reuseGraceMillis;
 
-        log.info("==> Refresh Token saved to Redis - userId: {}", userId);
-        log.info("==> Refresh Token saved to Redis - refreshToken: {}", refreshToken);
-    }
+    /**
+     * 기기 토큰 등록 + 기기 수 제한
+     * KEYS[1]: 패밀리 Hash
+     * ARGV[1]: deviceId, ARGV[2]: 토큰 digest, ARGV[3]: 현재 시각(ms), ARGV[4]: TTL(초), ARGV[5]: 최대 기기 수
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2] .. '||' .. ARGV[3])
+            if redis.call('HLEN', KEYS[1]) > tonumber(ARGV[5]) then
+                local entries = redis.call('HGETALL', KEYS[1])
+                local oldestField, oldestAt
+                for i = 1, #entries, 2 do
+                    local at = tonumber(string.match(entries[i + 1], '([^|]*)$'))
+                    if oldestAt == nil or at < oldestAt then
+                        oldestField, oldestAt = entries[i], at
+                    end
+                end
+                redis.call('HDEL', KEYS[1], oldestField)
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
 
     /**
-     * Redis에서 Refresh Token 조회
+     * 기기 토큰 확인 + 교체
+     * KEYS[1]: 패밀리 Hash
+     * ARGV[1]: deviceId, ARGV[2]: 제출된 토큰 digest, ARGV[3]: 새 토큰 digest,
+     * ARGV[4]: 현재 시각(ms), ARGV[5]: TTL(초), ARGV[6]: 동시 갱신 허용 시간(ms)
+     * 반환: 1 교체, 0 없음, 2 동시 갱신, -1 재사용 (패밀리 폐기)
      */
-    public String getRefreshToken(Long userId) {
-        String key = REFRESH_TOKEN_PREFIX + userId.toString();
-        String refreshToken = redisTemplate.opsForValue().get(key);
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local stored = redis.call('HGET', KEYS[1], ARGV[1])
+            if not stored then
+                return 0
+            end
+            local current, previous, rotatedAt = string.match(stored, '^([^|]*)|([^|]*)|([^|]*)$')
+            if current == ARGV[2] then
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[3] .. '|' .. current .. '|' .. ARGV[4])
+                redis.call('EXPIRE', KEYS[1], ARGV[5])
+                return 1
+            end
+            if previous == ARGV[2] and tonumber(ARGV[4]) - tonumber(rotatedAt) <= tonumber(ARGV[6]) then
+                return 2
+            end
+            redis.call('DEL', KEYS[1])
+            return -1
+            """, Long.class);
 
-        if (refreshToken == null) {
-            log.warn("Refresh Token not found in Redis - userId: {}", userId);
-        }
+    /**
+     * 로그인 시 기기의 Refresh Token 등록
+     */
+    public void saveRefreshToken(Long userId, String deviceId, String refreshToken) {
+        redisTemplate.execute(SAVE_SCRIPT, List.of(familyKey(userId)),
+                deviceId,
+                TokenDigest.sha256(refreshToken),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(jwtProperties.getRefreshTokenExpireSeconds()),
+                String.valueOf(maxDevices));
 
-        return refreshToken;
+        log.info("==> Refresh Token saved to Redis - userId: {}", userId);
     }
 
     /**
-     * Refresh Token 검증
-     * - Redis에 저장된 토큰과 일치하는지 확인
+     * 제출된 Refresh Token이 기기의 현재 토큰이면 새 토큰으로 교체 (한 번의 왕복)
      */
-    public boolean validateRefreshToken(Long userId, String refreshToken) {
-        String storedToken = getRefreshToken(userId);
-
-        if (storedToken == null) {
+    public RefreshTokenRotationResult rotate(Long userId, String deviceId, String presentedToken, String newToken) {
+        Long result = redisTemplate.execute(ROTATE_SCRIPT, List.of(familyKey(userId)),
+                deviceId,
+                TokenDigest.sha256(presentedToken),
+                TokenDigest.sha256(newToken),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(jwtProperties.getRefreshTokenExpireSeconds()),
+                String.valueOf(reuseGraceMillis));
+
+        if (result == null || result == 0) {
             log.warn("No stored refresh token for userId: {}", userId);
-            return false;
+            return RefreshTokenRotationResult.NOT_FOUND;
         }
+        if (result == 1) {
+            return RefreshTokenRotationResult.ROTATED;
+        }
+        if (result == 2) {
+            log.warn("Concurrent refresh with previous token - userId: {}", userId);
+            return RefreshTokenRotationResult.CONCURRENT;
+        }
+        log.warn("Refresh token reuse detected, token family revoked - userId: {}", userId);
+        return RefreshTokenRotationResult.REUSED;
+    }
 
-        boolean isValid = storedToken.equals(refreshToken);
+    /**
+     * 기기 하나의 Refresh Token 삭제 (로그아웃 시 사용)
+     */
+    public void deleteRefreshToken(Long userId, String deviceId) {
+        Long deleted = redisTemplate.opsForHash().delete(familyKey(userId), deviceId);
 
-        if (!isValid) {
-            log.warn("Refresh token mismatch for userId: {}", userId);
+        if (deleted != null && deleted > 0) {
+            log.info("Refresh Token deleted from Redis - userId: {}", userId);
+        } else {
+            log.warn("Refresh Token not found for deletion - userId: {}", userId);
         }
-
-        return isValid;
     }
 
     /**
-     * Refresh Token 삭제 (로그아웃 시 사용)
+     * 사용자의 모든 기기 Refresh Token 삭제 (회원탈퇴 등)
      */
     public void deleteRefreshToken(Long userId) {
-        String key = REFRESH_TOKEN_PREFIX + userId.toString();
-        Boolean deleted = redisTemplate.delete(key);
+        Boolean deleted = redisTemplate.delete(familyKey(userId));
 
         if (Boolean.TRUE.equals(deleted)) {
             log.info("Refresh Token deleted from Redis - userId: {}", userId);
@@ -87,5 +155,7 @@ public class RefreshTokenService {
         }
     }
 
-
+    private static String familyKey(Long userId) {
+        return REFRESH_TOKEN_PREFIX + userId;
+    }
 }
@@ -0,0 +1,96 @@
+package com.mysite.knitly.domain.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.order.entity.OrderOutboxEvent;
+import com.mysite.knitly.domain.order.repository.OrderOutboxEventRepository;
+import com.mysite.knitly.global.config.RabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventOutboxServiceTest {
+
+    @Mock
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private OrderEventOutboxService orderEventOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderEventOutboxService, "batchSize", 500);
+        ReflectionTestUtils.setField(orderEventOutboxService, "confirmTimeoutMillis", 1000L);
+        ReflectionTestUtils.setField(orderEventOutboxService, "claimTimeoutMillis", 60_000L);
+    }
+
+    @Test
+    @DisplayName("릴레이: 배치를 모두 보낸 뒤 ack 받은 이벤트만 발행 완료 처리")
+    void relay_MarksOnlyAcked() {
+        OrderOutboxEvent first = event(1L);
+        OrderOutboxEvent second = event(2L);
+        given(orderOutboxEventRepository.findClaimableForUpdate(any(), any())).willReturn(List.of(first, second));
+
+        willAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            boolean ack = correlationData.getId().equals("1");
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).given(rabbitTemplate).send(eq(RabbitMQConfig.ORDER_EXCHANGE), eq(RabbitMQConfig.ORDER_COMPLETED_ROUTING_KEY),
+                any(Message.class), any(CorrelationData.class));
+
+        int published = orderEventOutboxService.relay();
+
+        assertThat(published).isEqualTo(1);
+        verify(orderOutboxEventRepository).claim(eq(List.of(1L, 2L)), any());
+        verify(orderOutboxEventRepository).markPublished(eq(List.of(1L)), any());
+        verify(orderOutboxEventRepository).unclaim(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("릴레이: 미발행 이벤트가 없으면 브로커를 호출하지 않음")
+    void relay_Empty() {
+        given(orderOutboxEventRepository.findClaimableForUpdate(any(), any())).willReturn(List.of());
+
+        assertThat(orderEventOutboxService.relay()).isZero();
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private OrderOutboxEvent event(Long eventId) {
+        OrderOutboxEvent event = OrderOutboxEvent.of(10L + eventId, RabbitMQConfig.ORDER_COMPLETED_ROUTING_KEY,
+                "{\"orderId\":" + (10L + eventId) + "}");
+        ReflectionTestUtils.setField(event, "eventId", eventId);
+        return event;
+    }
+}
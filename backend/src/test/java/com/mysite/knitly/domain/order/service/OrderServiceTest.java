@@ -19,6 +19,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
@@ -50,6 +51,9 @@ class OrderServiceTest {
     @Autowired
     private OrderFacade orderFacade;
 
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
     private Product testProduct;
 
     private Product testProduct2;
@@ -122,6 +126,12 @@ class OrderServiceTest {
                         .isDeleted(false)
                         .build()
         );
+
+        // 이전 실행의 Redis 재고/예약 수량이 남아 있지 않도록 정리
+        for (Product product : List.of(testProduct, testProduct2)) {
+            Long productId = product.getProductId();
+            redisTemplate.delete(List.of("stock:" + productId, "stock:reserved:" + productId, "stock:pending:" + productId));
+        }
     }
 
     @Test
@@ -142,10 +152,10 @@ class OrderServiceTest {
                             List.of(testProduct.getProductId())
                     );
                     // Facade를 통해 주문 생성 로직 호출
-                    orderFacade.createOrderWithLock(testUser, request);
+                    orderFacade.createOrder(testUser, request);
                     successCount.incrementAndGet();
                 } catch (Exception e) {
-                    // 락 획득 실패, 재고 부족 등의 예외는 의도된 실패이므로 무시
+                    // 재고 부족 등의 예외는 의도된 실패이므로 무시
                     // 실패시 카운트 증가
                     failCount.incrementAndGet();
                     // 실패 로그는 DEBUG 레벨로 남겨서 평소엔 안 보이게 처리
@@ -174,7 +184,7 @@ class OrderServiceTest {
                 - 성공 (Atomic): {}
                 - 실패 (Atomic): {}
                 - DB에 생성된 주문 수: {}
-                - 남은 최종 재고: {}
+                - DB 재고: {}
                 ===========================================================
                 """,
                 "100 requests for 10 stocks",
@@ -186,8 +196,11 @@ class OrderServiceTest {
                 updatedProduct.getStockQuantity()
         );
 
-        // 검증: 재고는 0, DB에 저장된 주문은 10개, 성공 카운트도 10개
-        assertThat(updatedProduct.getStockQuantity()).isEqualTo(0);
+        // 검증: Redis 재고는 0, 결제 대기 예약 수량 10개, DB 재고는 결제 확정 전이라 그대로
+        //       DB에 저장된 주문은 10개, 성공 카운트도 10개
+        assertThat(redisTemplate.opsForValue().get("stock:" + testProduct.getProductId())).isEqualTo("0");
+        assertThat(redisTemplate.opsForValue().get("stock:reserved:" + testProduct.getProductId())).isEqualTo("10");
+        assertThat(updatedProduct.getStockQuantity()).isEqualTo(10);
         assertThat(orderRepository.count()).isEqualTo(10);
         assertThat(successCount.get()).isEqualTo(10);
     }
@@ -210,10 +223,10 @@ class OrderServiceTest {
                             List.of(testProduct2.getProductId())
                     );
                     // Facade를 통해 주문 생성 로직 호출
-                    orderFacade.createOrderWithLock(testUser, request);
+                    orderFacade.createOrder(testUser, request);
                     successCount.incrementAndGet();
                 } catch (Exception e) {
-                    // 락 획득 실패, 재고 부족 등의 예외는 의도된 실패이므로 무시
+                    // 재고 부족 등의 예외는 의도된 실패이므로 무시
                     // 실패시 카운트 증가
                     failCount.incrementAndGet();
                     log.debug("Order failed as expected: {}", e.getMessage());
@@ -241,7 +254,7 @@ class OrderServiceTest {
                 - 성공 (Atomic): {}
                 - 실패 (Atomic): {}
                 - DB에 생성된 주문 수: {}
-                - 남은 최종 재고: {}
+                - DB 재고: {}
                 ===========================================================
                 """,
                 "200 requests for 3 stocks",
@@ -253,8 +266,11 @@ class OrderServiceTest {
                 updatedProduct.getStockQuantity()
         );
 
-        // 검증: 재고는 0, DB에 저장된 주문은 3개, 성공 카운트도 3개
-        assertThat(updatedProduct.getStockQuantity()).isEqualTo(0);
+        // 검증: Redis 재고는 0, 결제 대기 예약 수량 3개, DB 재고는 결제 확정 전이라 그대로
+        //       DB에 저장된 주문은 3개, 성공 카운트도 3개
+        assertThat(redisTemplate.opsForValue().get("stock:" + testProduct2.getProductId())).isEqualTo("0");
+        assertThat(redisTemplate.opsForValue().get("stock:reserved:" + testProduct2.getProductId())).isEqualTo("3");
+        assertThat(updatedProduct.getStockQuantity()).isEqualTo(3);
         assertThat(orderRepository.count()).isEqualTo(3);
         assertThat(successCount.get()).isEqualTo(3);
     }
@@ -0,0 +1,101 @@
+package com.mysite.knitly.domain.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mysite.knitly.domain.order.dto.OrderCreateRequest;
+import com.mysite.knitly.domain.order.dto.OrderIntakeMessage;
+import com.mysite.knitly.domain.order.dto.OrderTicket;
+import com.mysite.knitly.domain.order.dto.OrderTicketResponse;
+import com.mysite.knitly.domain.order.entity.OrderTicketStatus;
+import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.global.config.RabbitMQConfig;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.net.ConnectException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTicketServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OrderTicketService orderTicketService;
+
+    @BeforeEach
+    void setUp() {
+        orderTicketService = new OrderTicketService(redisTemplate, rabbitTemplate, objectMapper);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("주문 접수: QUEUED 티켓을 저장하고 가장 작은 상품 ID의 샤드로 발행")
+    void submit() {
+        User user = User.builder().userId(1L).build();
+
+        OrderTicketResponse response = orderTicketService.submit(user, new OrderCreateRequest(List.of(7L, 6L)));
+
+        assertThat(response.status()).isEqualTo(OrderTicketStatus.QUEUED);
+        verify(valueOperations).set(eq("order:ticket:" + response.ticketId()), anyString(), any());
+        verify(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.ORDER_INTAKE_EXCHANGE),
+                eq(RabbitMQConfig.orderIntakeRoutingKey(6 % RabbitMQConfig.ORDER_INTAKE_SHARDS)),
+                any(OrderIntakeMessage.class));
+    }
+
+    @Test
+    @DisplayName("주문 접수: 메시지 발행에 실패하면 QUEUED 티켓을 지우고 ORDER_INTAKE_UNAVAILABLE")
+    void submit_PublishFails() {
+        User user = User.builder().userId(1L).build();
+        willThrow(new AmqpConnectException(new ConnectException("broker down")))
+                .given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(OrderIntakeMessage.class));
+
+        assertThatThrownBy(() -> orderTicketService.submit(user, new OrderCreateRequest(List.of(7L))))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.ORDER_INTAKE_UNAVAILABLE);
+        verify(redisTemplate).delete(startsWith("order:ticket:"));
+    }
+
+    @Test
+    @DisplayName("티켓 조회: 다른 사용자의 티켓이면 ORDER_TICKET_NOT_FOUND")
+    void getTicket_OtherUser() throws Exception {
+        User other = User.builder().userId(2L).build();
+        given(valueOperations.get("order:ticket:t-1"))
+                .willReturn(objectMapper.writeValueAsString(OrderTicket.queued("t-1", 1L)));
+
+        assertThatThrownBy(() -> orderTicketService.getTicket(other, "t-1"))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.ORDER_TICKET_NOT_FOUND);
+    }
+}
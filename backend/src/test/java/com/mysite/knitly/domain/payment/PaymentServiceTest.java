@@ -1,9 +1,6 @@
 package com.mysite.knitly.domain.payment;
 
-import com.mysite.knitly.domain.order.entity.Order;
-import com.mysite.knitly.domain.order.repository.OrderRepository;
 import com.mysite.knitly.domain.payment.dto.PaymentCancelRequest;
-import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
 import com.mysite.knitly.domain.payment.dto.PaymentDetailResponse;
 import com.mysite.knitly.domain.payment.entity.Payment;
 import com.mysite.knitly.domain.payment.entity.PaymentMethod;
@@ -36,9 +33,6 @@ public class PaymentServiceTest {
     @InjectMocks
     PaymentService paymentService;
 
-    @Mock
-    OrderRepository orderRepository;
-
     @Test
     @DisplayName("마이페이지 결제내역 단건 조회 - 성공(본인 주문)")
     void success() {
@@ -103,48 +97,6 @@ public class PaymentServiceTest {
                 .isEqualTo(ErrorCode.PAYMENT_UNAUTHORIZED_ACCESS); // 네 코드에 맞춰 사용
     }
 
-    @Test
-    @DisplayName("결제 승인 실패 - 주문 없음")
-    void confirm_orderNotFound() {
-        PaymentConfirmRequest req = new PaymentConfirmRequest("pk1", "1", 1000L);
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> paymentService.confirmPayment(req))
-                .isInstanceOf(ServiceException.class)
-                .extracting("errorCode")
-                .isEqualTo(ErrorCode.ORDER_NOT_FOUND);
-    }
-
-    @Test
-    @DisplayName("결제 승인 실패 - 금액 불일치")
-    void confirm_amountMismatch() {
-        PaymentConfirmRequest req = new PaymentConfirmRequest("pk1", "1", 2000L);
-        Order order = Order.builder().orderId(1L).totalPrice(10000.0).build();
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-
-        assertThatThrownBy(() -> paymentService.confirmPayment(req))
-                .isInstanceOf(ServiceException.class)
-                .extracting("errorCode")
-                .isEqualTo(ErrorCode.PAYMENT_AMOUNT_MISMATCH);
-    }
-
-    @Test
-    @DisplayName("결제 승인 실패 - 중복 결제")
-    void confirm_duplicate() {
-        PaymentConfirmRequest req = new PaymentConfirmRequest("pk1", "1", 1000L);
-        Order order = Order.builder().orderId(1L).totalPrice(1000.0).build();
-        Payment payment = Payment.builder().build();
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(paymentRepository.findByOrder_OrderId(1L)).thenReturn(Optional.of(payment));
-
-        assertThatThrownBy(() -> paymentService.confirmPayment(req))
-                .isInstanceOf(ServiceException.class)
-                .extracting("errorCode")
-                .isEqualTo(ErrorCode.PAYMENT_ALREADY_EXISTS);
-    }
-
     @Test
     @DisplayName("결제 취소 실패 - 결제 없음")
     void cancel_notFound() {
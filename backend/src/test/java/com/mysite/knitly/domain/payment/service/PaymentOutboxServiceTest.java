@@ -0,0 +1,229 @@
+package com.mysite.knitly.domain.payment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.order.entity.Order;
+import com.mysite.knitly.domain.order.entity.OrderItem;
+import com.mysite.knitly.domain.order.repository.OrderRepository;
+import com.mysite.knitly.domain.order.service.OrderEventOutboxService;
+import com.mysite.knitly.domain.payment.dto.PaymentConfirmRequest;
+import com.mysite.knitly.domain.payment.entity.Payment;
+import com.mysite.knitly.domain.payment.entity.PaymentOutbox;
+import com.mysite.knitly.domain.payment.entity.PaymentOutboxStatus;
+import com.mysite.knitly.domain.payment.gateway.PaymentGateway;
+import com.mysite.knitly.domain.payment.repository.PaymentOutboxRepository;
+import com.mysite.knitly.domain.payment.repository.PaymentRepository;
+import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.service.PurchaseCountBuffer;
+import com.mysite.knitly.domain.product.product.service.StockReservationService;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderEventOutboxService orderEventOutboxService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private PurchaseCountBuffer purchaseCountBuffer;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private PaymentOutboxService paymentOutboxService;
+
+    private PaymentOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentOutboxService, "stuckAfterMillis", 60_000L);
+        ReflectionTestUtils.setField(paymentOutboxService, "maxAttempts", 10);
+        ReflectionTestUtils.setField(paymentOutboxService, "batchSize", 100);
+
+        outbox = PaymentOutbox.pending(1L, "toss-order-1", "pk_1", 10_000L);
+        ReflectionTestUtils.setField(outbox, "outboxId", 100L);
+
+        lenient().when(paymentOutboxRepository.findStuck(eq(PaymentOutboxStatus.PENDING), any(), anyInt(), any()))
+                .thenReturn(List.of(outbox));
+        lenient().when(paymentOutboxRepository.findStuck(eq(PaymentOutboxStatus.APPROVED), any(), anyInt(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("결과 모르는 승인 건: 같은 idempotencyKey로 PG에 다시 물어 승인 응답을 기록")
+    void recover_PendingApproved() {
+        JsonNode response = objectMapper.createObjectNode().put("status", "DONE");
+        given(paymentGateway.confirm(new PaymentConfirmRequest("pk_1", "toss-order-1", 10_000L),
+                outbox.getIdempotencyKey())).willReturn(response);
+        given(paymentOutboxRepository.findAllByIdForUpdate(any())).willReturn(List.of(outbox));
+
+        paymentOutboxService.recover();
+
+        assertThat(outbox.getStatus()).isEqualTo(PaymentOutboxStatus.APPROVED);
+        assertThat(outbox.getResponse()).isEqualTo(response.toString());
+        verify(stockReservationService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("결과 모르는 승인 건: PG가 거절했으면 FAILED 처리 후 재고 예약 해제")
+    void recover_PendingDeclined() {
+        given(paymentGateway.confirm(any(), eq(outbox.getIdempotencyKey())))
+                .willThrow(new ServiceException(ErrorCode.PAYMENT_API_CALL_FAILED));
+        given(paymentOutboxRepository.findByIdForUpdate(100L)).willReturn(Optional.of(outbox));
+
+        paymentOutboxService.recover();
+
+        assertThat(outbox.getStatus()).isEqualTo(PaymentOutboxStatus.FAILED);
+        verify(stockReservationService).release("toss-order-1");
+    }
+
+    @Test
+    @DisplayName("결과 모르는 승인 건: 거절 응답이 와도 그 사이 완료된 행은 FAILED로 바꾸지 않고 재고 유지")
+    void fail_AlreadyCompleted() {
+        PaymentOutbox completed = PaymentOutbox.pending(1L, "toss-order-1", "pk_1", 10_000L);
+        ReflectionTestUtils.setField(completed, "outboxId", 100L);
+        completed.complete();
+        given(paymentOutboxRepository.findByIdForUpdate(100L)).willReturn(Optional.of(completed));
+
+        paymentOutboxService.fail(100L, "toss-order-1");
+
+        assertThat(completed.getStatus()).isEqualTo(PaymentOutboxStatus.COMPLETED);
+        verify(stockReservationService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("결과 모르는 승인 건: PG가 여전히 5xx면 PENDING으로 두고 재고 예약 유지")
+    void recover_PendingStillUnknown() {
+        given(paymentGateway.confirm(any(), eq(outbox.getIdempotencyKey())))
+                .willThrow(new ServiceException(ErrorCode.PAYMENT_GATEWAY_TIMEOUT));
+
+        paymentOutboxService.recover();
+
+        assertThat(outbox.getStatus()).isEqualTo(PaymentOutboxStatus.PENDING);
+        verify(paymentOutboxRepository).incrementAttempts(eq(List.of(100L)), any());
+        verify(stockReservationService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("결과 모르는 승인 건: 그 사이 요청 스레드가 완료한 행은 APPROVED로 되돌리지 않음")
+    void recover_PendingAlreadyCompleted() {
+        JsonNode response = objectMapper.createObjectNode().put("status", "DONE");
+        given(paymentGateway.confirm(any(), eq(outbox.getIdempotencyKey()))).willReturn(response);
+        PaymentOutbox completed = PaymentOutbox.pending(1L, "toss-order-1", "pk_1", 10_000L);
+        ReflectionTestUtils.setField(completed, "outboxId", 100L);
+        completed.complete();
+        given(paymentOutboxRepository.findAllByIdForUpdate(any())).willReturn(List.of(completed));
+
+        paymentOutboxService.recover();
+
+        assertThat(completed.getStatus()).isEqualTo(PaymentOutboxStatus.COMPLETED);
+        assertThat(completed.getResponse()).isNull();
+    }
+
+    @Test
+    @DisplayName("승인 완료: 결제가 끝난 주문의 상품만 구매수에 반영")
+    void complete_CountsPurchases() {
+        Product product = Product.builder().productId(7L).build();
+        Order order = Order.create(null, List.of(OrderItem.builder()
+                .product(product).orderPrice(10_000.0).quantity(1).build()), "toss-order-1");
+        JsonNode response = objectMapper.createObjectNode()
+                .put("paymentKey", "pk_1")
+                .put("orderId", "toss-order-1")
+                .put("totalAmount", 10_000L)
+                .put("method", "카드")
+                .put("status", "DONE");
+        given(paymentOutboxRepository.findByIdForUpdate(100L)).willReturn(Optional.of(outbox));
+        given(orderRepository.findById(1L)).willReturn(Optional.of(order));
+        given(paymentRepository.save(any(Payment.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        paymentOutboxService.complete(100L, response);
+
+        assertThat(outbox.getStatus()).isEqualTo(PaymentOutboxStatus.COMPLETED);
+        verify(purchaseCountBuffer).increment(7L);
+    }
+
+    @Test
+    @DisplayName("승인 시작 실패 - 주문 없음")
+    void begin_OrderNotFound() {
+        given(orderRepository.findByTossOrderId("toss-order-1")).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentOutboxService.begin(
+                new PaymentConfirmRequest("pk_1", "toss-order-1", 10_000L)))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.ORDER_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("승인 시작 실패 - 금액 불일치")
+    void begin_AmountMismatch() {
+        Order order = Order.builder().orderId(1L).totalPrice(10_000.0).tossOrderId("toss-order-1").build();
+        given(orderRepository.findByTossOrderId("toss-order-1")).willReturn(Optional.of(order));
+
+        assertThatThrownBy(() -> paymentOutboxService.begin(
+                new PaymentConfirmRequest("pk_1", "toss-order-1", 2_000L)))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.PAYMENT_AMOUNT_MISMATCH);
+    }
+
+    @Test
+    @DisplayName("승인 시작 실패 - 중복 결제")
+    void begin_Duplicate() {
+        Order order = Order.builder().orderId(1L).totalPrice(10_000.0).tossOrderId("toss-order-1").build();
+        given(orderRepository.findByTossOrderId("toss-order-1")).willReturn(Optional.of(order));
+        given(paymentRepository.findByOrder_OrderId(1L)).willReturn(Optional.of(Payment.builder().build()));
+
+        assertThatThrownBy(() -> paymentOutboxService.begin(
+                new PaymentConfirmRequest("pk_1", "toss-order-1", 10_000L)))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.PAYMENT_ALREADY_EXISTS);
+        verify(paymentOutboxRepository, never()).save(any());
+    }
+}
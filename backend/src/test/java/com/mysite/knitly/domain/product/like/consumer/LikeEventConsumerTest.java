@@ -1,97 +1,87 @@
 package com.mysite.knitly.domain.product.like.consumer;
 
 import com.mysite.knitly.domain.product.like.dto.LikeEventRequest;
-import com.mysite.knitly.domain.product.like.entity.ProductLike;
 import com.mysite.knitly.domain.product.like.entity.ProductLikeId;
-import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
-import com.mysite.knitly.domain.product.product.entity.Product;
-import com.mysite.knitly.domain.product.product.repository.ProductRepository;
-import com.mysite.knitly.domain.user.entity.User;
-import com.mysite.knitly.domain.user.repository.UserRepository;
-import com.mysite.knitly.global.exception.ServiceException;
+import com.mysite.knitly.domain.product.like.repository.ProductLikeBatchRepository;
+import com.mysite.knitly.global.config.RabbitMQConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class LikeEventConsumerTest {
 
     @Mock
-    private ProductLikeRepository productLikeRepository;
-    @Mock
-    private UserRepository userRepository;
-    @Mock
-    private ProductRepository productRepository;
+    private ProductLikeBatchRepository productLikeBatchRepository;
 
     @InjectMocks
     private LikeEventConsumer likeEventConsumer;
 
     @Test
-    @DisplayName("찜하기: 정상")
-    void handleLikeEvent_Success() {
-        LikeEventRequest request = new LikeEventRequest(3L, 1L);
-        User user = User.builder().userId(request.userId()).build();
-        Product product = Product.builder().productId(request.productId()).build();
-
-        when(userRepository.findById(request.userId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(request.productId())).thenReturn(Optional.of(product));
-        when(productLikeRepository.existsById(any(ProductLikeId.class))).thenReturn(false);
-
-        likeEventConsumer.handleLikeEvent(request);
-
-        verify(productLikeRepository).save(any(ProductLike.class));
+    @DisplayName("찜 배치: 같은 (user, product)의 추가/삭제는 마지막 이벤트만 반영")
+    void handleLikeEvents_Coalesce() {
+        ProductLikeId toggled = new ProductLikeId(1L, 10L);
+        ProductLikeId liked = new ProductLikeId(2L, 10L);
+        ProductLikeId unliked = new ProductLikeId(3L, 20L);
+        when(productLikeBatchRepository.findExisting(anyCollection())).thenReturn(Set.of(unliked));
+
+        likeEventConsumer.handleLikeEvents(List.of(
+                message(RabbitMQConfig.LIKE_ADD_QUEUE, 1L, 10L, 1),
+                message(RabbitMQConfig.LIKE_ADD_QUEUE, 2L, 10L, 2),
+                message(RabbitMQConfig.LIKE_DELETE_QUEUE, 1L, 10L, 3),
+                message(RabbitMQConfig.LIKE_DELETE_QUEUE, 3L, 20L, 4)));
+
+        verify(productLikeBatchRepository).findExisting(Set.of(toggled, liked, unliked));
+        verify(productLikeBatchRepository).insertIgnore(List.of(liked));
+        verify(productLikeBatchRepository).delete(List.of(unliked));
     }
 
     @Test
-    @DisplayName("찜하기: 이미 찜한 상품일 경우 예외 발생")
-    void handleLikeEvent_AlreadyExists_ThrowsException() {
-        LikeEventRequest request = new LikeEventRequest(3L, 1L);
-        User user = User.builder().userId(request.userId()).build();
-        Product product = Product.builder().productId(request.productId()).build();
-
-        when(userRepository.findById(request.userId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(request.productId())).thenReturn(Optional.of(product));
-        when(productLikeRepository.existsById(any(ProductLikeId.class))).thenReturn(true);
-
-        assertThrows(ServiceException.class, () -> likeEventConsumer.handleLikeEvent(request));
-        verify(productLikeRepository, never()).save(any());
+    @DisplayName("찜 배치: 두 큐의 메시지가 섞여 도착해도 sequence가 가장 큰 이벤트를 반영")
+    void handleLikeEvents_OrdersBySequence() {
+        ProductLikeId id = new ProductLikeId(1L, 10L);
+        when(productLikeBatchRepository.findExisting(anyCollection())).thenReturn(Set.of());
+
+        // 클릭 순서: 삭제(5) -> 추가(6), 도착 순서: 추가 -> 삭제
+        likeEventConsumer.handleLikeEvents(List.of(
+                message(RabbitMQConfig.LIKE_ADD_QUEUE, 1L, 10L, 6),
+                message(RabbitMQConfig.LIKE_DELETE_QUEUE, 1L, 10L, 5)));
+
+        verify(productLikeBatchRepository).insertIgnore(List.of(id));
+        verify(productLikeBatchRepository).delete(List.of());
     }
 
     @Test
-    @DisplayName("찜 삭제: 정상")
-    void handleDislikeEvent_Success() {
-        LikeEventRequest request = new LikeEventRequest(3L, 1L);
-        ProductLikeId id = new ProductLikeId(request.userId(), request.productId());
-        ProductLike like = ProductLike.builder().build();
+    @DisplayName("찜 배치: DB 반영 실패 시 예외를 그대로 던져 배치를 다시 시도하게 함 (Redis는 되돌리지 않음)")
+    void handleLikeEvents_Failure_Retries() {
+        when(productLikeBatchRepository.findExisting(anyCollection())).thenThrow(new IllegalStateException("db down"));
 
-        when(userRepository.existsById(request.userId())).thenReturn(true);
-        when(productRepository.existsById(request.productId())).thenReturn(true);
-        when(productLikeRepository.findById(id)).thenReturn(Optional.of(like));
+        assertThatThrownBy(() -> likeEventConsumer.handleLikeEvents(List.of(
+                message(RabbitMQConfig.LIKE_ADD_QUEUE, 1L, 10L, 1))))
+                .isInstanceOf(IllegalStateException.class);
 
-        likeEventConsumer.handleDislikeEvent(request);
-
-        verify(productLikeRepository).delete(like);
+        verify(productLikeBatchRepository, never()).insertIgnore(any());
     }
 
-    @Test
-    @DisplayName("찜 삭제: 삭제할 찜이 없을 경우 예외 발생")
-    void handleDislikeEvent_NotFound_ThrowsException() {
-        LikeEventRequest request = new LikeEventRequest(3L, 1L);
-        ProductLikeId id = new ProductLikeId(request.userId(), request.productId());
-
-        when(userRepository.existsById(request.userId())).thenReturn(true);
-        when(productRepository.existsById(request.productId())).thenReturn(true);
-        when(productLikeRepository.findById(id)).thenReturn(Optional.empty());
-
-        assertThrows(ServiceException.class, () -> likeEventConsumer.handleDislikeEvent(request));
-        verify(productLikeRepository, never()).delete(any());
+    private Message<LikeEventRequest> message(String queue, Long userId, Long productId, long sequence) {
+        return MessageBuilder.withPayload(new LikeEventRequest(userId, productId, sequence))
+                .setHeader(AmqpHeaders.CONSUMER_QUEUE, queue)
+                .build();
     }
-}
\ No newline at end of file
+}
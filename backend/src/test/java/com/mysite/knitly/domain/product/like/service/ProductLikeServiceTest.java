@@ -1,7 +1,7 @@
 package com.mysite.knitly.domain.product.like.service;
 
 import com.mysite.knitly.domain.product.like.dto.LikeEventRequest;
-import org.junit.jupiter.api.BeforeEach;
+import com.mysite.knitly.domain.product.like.repository.ProductLikeRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,13 +10,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProductLikeServiceTest {
 
+    private static final List<String> KEYS = List.of("likes:product:1", "likes:product:1:loaded", "likes:dirty",
+            "likes:user:3", "likes:user:3:loaded", "likes:seq");
+    private static final String TTL = "604800";
+
     @Mock
     private RedisTemplate<String, String> redisTemplate;
 
@@ -24,44 +34,69 @@ class ProductLikeServiceTest {
     private RabbitTemplate rabbitTemplate;
 
     @Mock
-    private SetOperations<String, String> setOperations;
+    private ProductLikeRepository productLikeRepository;
 
     @InjectMocks
     private ProductLikeService productLikeService;
 
-    @BeforeEach
-    void setUp() {
-        when(redisTemplate.opsForSet()).thenReturn(setOperations);
-    }
-
     @Test
-    @DisplayName("찜하기: Redis에 추가하고 RabbitMQ에 메시지 발행")
+    @DisplayName("찜하기: Redis 찜 집합에 추가하고 RabbitMQ에 메시지 발행")
     void addLike_ShouldAddToRedisAndPublishMessage() {
-        Long userId = 3L;
-        Long productId = 1L;
-        String redisKey = "likes:product:" + productId;
-        LikeEventRequest eventDto = new LikeEventRequest(userId, productId);
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SADD"), eq("1"), eq(TTL))).thenReturn(42L);
 
-        productLikeService.addLike(userId, productId);
+        productLikeService.addLike(3L, 1L);
 
-        verify(setOperations).add(redisKey, userId.toString());
-        verify(rabbitTemplate).convertAndSend("like.exchange", "like.add.routingkey", eventDto);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SADD"), eq("1"), eq(TTL));
+        verify(rabbitTemplate).convertAndSend("like.exchange", "like.add.routingkey", new LikeEventRequest(3L, 1L, 42L));
+        verify(productLikeRepository, never()).findUserIdsByProductId(any());
     }
 
     @Test
-    @DisplayName("찜 삭제: Redis에서 제거하고 RabbitMQ에 메시지 발행")
+    @DisplayName("찜 삭제: Redis 찜 집합에서 제거하고 RabbitMQ에 메시지 발행")
     void deleteLike_ShouldRemoveFromRedisAndPublishMessage() {
-        Long userId = 3L;
-        Long productId = 1L;
-        String redisKey = "likes:product:" + productId;
-        LikeEventRequest eventDto = new LikeEventRequest(userId, productId);
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SREM"), eq("1"), eq(TTL))).thenReturn(43L);
+
+        productLikeService.deleteLike(3L, 1L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SREM"), eq("1"), eq(TTL));
+        verify(rabbitTemplate).convertAndSend("like.exchange", "like.delete.routingkey", new LikeEventRequest(3L, 1L, 43L));
+    }
+
+    @Test
+    @DisplayName("찜하기: 찜 집합이 적재되지 않았으면 DB 찜 목록으로 채운 뒤 다시 추가")
+    void addLike_LoadsFromDbWhenNotLoaded() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SADD"), eq("1"), eq(TTL)))
+                .thenReturn(-1L, 1L);
+        when(productLikeRepository.findUserIdsByProductId(1L)).thenReturn(List.of(5L, 7L));
 
-        when(redisTemplate.opsForSet()).thenReturn(setOperations);
-        when(setOperations.isMember(redisKey, userId.toString())).thenReturn(true);
+        productLikeService.addLike(3L, 1L);
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("likes:product:1", "likes:product:1:loaded", "likes:dirty")), eq("1"), eq("5"), eq("7"));
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(KEYS), eq("3"), eq("SADD"), eq("1"), eq(TTL));
+    }
+
+    @Test
+    @DisplayName("찜 여부: 사용자 찜 집합이 있으면 SMISMEMBER 결과로 판단")
+    void getLikedProductIds_FromRedis() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("likes:user:3", "likes:user:3:loaded")),
+                eq("1"), eq("2"), eq("4"))).thenReturn(List.of(1L, 0L, 1L));
+
+        Set<Long> liked = productLikeService.getLikedProductIds(3L, List.of(1L, 2L, 4L));
+
+        assertThat(liked).containsExactlyInAnyOrder(1L, 4L);
+        verify(productLikeRepository, never()).findProductIdsByUserId(any());
+    }
+
+    @Test
+    @DisplayName("찜 여부: 사용자 찜 집합이 없으면 DB에서 채운 뒤 그 목록으로 판단")
+    void getLikedProductIds_LoadsFromDbWhenNotLoaded() {
+        when(productLikeRepository.findProductIdsByUserId(3L)).thenReturn(List.of(2L, 9L));
 
-        productLikeService.deleteLike(userId, productId);
+        Set<Long> liked = productLikeService.getLikedProductIds(3L, List.of(1L, 2L));
 
-        verify(setOperations).remove(redisKey, userId.toString());
-        verify(rabbitTemplate).convertAndSend("like.exchange", "like.delete.routingkey", eventDto);
+        assertThat(liked).containsExactly(2L);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("likes:user:3", "likes:user:3:loaded")), eq(TTL), eq("2"), eq("9"));
     }
-}
\ No newline at end of file
+}
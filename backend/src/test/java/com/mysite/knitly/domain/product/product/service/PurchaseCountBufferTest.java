@@ -0,0 +1,78 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.repository.ProductPurchaseCountRepository;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseCountBufferTest {
+
+    @Mock
+    private ProductPurchaseCountRepository productPurchaseCountRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RedisProductService redisProductService;
+
+    @InjectMocks
+    private PurchaseCountBuffer purchaseCountBuffer;
+
+    @Test
+    @DisplayName("모인 증가분을 상품별로 합산해 한 번에 반영")
+    void flush_AggregatesDeltas() {
+        purchaseCountBuffer.increment(1L);
+        purchaseCountBuffer.increment(1L);
+        purchaseCountBuffer.increment(2L);
+
+        purchaseCountBuffer.flush();
+
+        verify(productPurchaseCountRepository).incrementPurchaseCounts(Map.of(1L, 2L, 2L, 1L));
+        verify(redisProductService).incrementPurchaseCounts(any(), anyMap());
+
+        // 이미 반영된 증가분은 다시 반영하지 않음
+        purchaseCountBuffer.flush();
+        verify(productPurchaseCountRepository, times(1)).incrementPurchaseCounts(anyMap());
+    }
+
+    @Test
+    @DisplayName("DB 반영 실패 시 증가분을 되돌려 다음 주기에 재시도")
+    void flush_DbFailure_RetriesNextTime() {
+        purchaseCountBuffer.increment(1L);
+        willThrow(new DataAccessResourceFailureException("db down"))
+                .given(productPurchaseCountRepository).incrementPurchaseCounts(Map.of(1L, 1L));
+
+        purchaseCountBuffer.flush();
+        verify(redisProductService, never()).incrementPurchaseCounts(any(), anyMap());
+
+        purchaseCountBuffer.increment(1L);
+        purchaseCountBuffer.flush();
+
+        verify(productPurchaseCountRepository).incrementPurchaseCounts(Map.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("증가분이 없으면 아무것도 반영하지 않음")
+    void flush_Empty() {
+        purchaseCountBuffer.flush();
+
+        verifyNoInteractions(productPurchaseCountRepository, productRepository, redisProductService);
+    }
+}
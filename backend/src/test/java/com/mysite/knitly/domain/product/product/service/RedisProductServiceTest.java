@@ -0,0 +1,148 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.entity.PopularityWindow;
+import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.entity.ProductCategory;
+import com.mysite.knitly.domain.product.product.entity.ProductFilterType;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisProductServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private RedisProductService redisProductService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    @Test
+    @DisplayName("카테고리 인기순: 카테고리 랭킹에서 페이지 구간만 조회하고 ZCARD로 전체 개수 계산")
+    void getPopularProductIds_Category() {
+        String key = "product:popular:category:TOP";
+        given(zSetOperations.zCard(key)).willReturn(45L);
+        given(zSetOperations.reverseRange(key, 20, 39))
+                .willReturn(new LinkedHashSet<>(List.of("7", "3", "11")));
+
+        Page<Long> result = redisProductService.getPopularProductIds(
+                ProductCategory.TOP, ProductFilterType.ALL, PopularityWindow.ALL_TIME, PageRequest.of(1, 20));
+
+        assertThat(result.getContent()).containsExactly(7L, 3L, 11L);
+        assertThat(result.getTotalElements()).isEqualTo(45L);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("무료 인기순: 무료 랭킹 키 사용")
+    void getPopularProductIds_Free() {
+        String key = "product:popular:free";
+        given(zSetOperations.zCard(key)).willReturn(2L);
+        given(zSetOperations.reverseRange(key, 0, 19))
+                .willReturn(new LinkedHashSet<>(List.of("2", "1")));
+
+        Page<Long> result = redisProductService.getPopularProductIds(
+                null, ProductFilterType.FREE, PopularityWindow.ALL_TIME, PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("오늘의 인기순: 카테고리 랭킹의 today 키 사용")
+    void getPopularProductIds_Today() {
+        String key = "product:popular:category:BAG:today";
+        given(zSetOperations.zCard(key)).willReturn(1L);
+        given(zSetOperations.reverseRange(key, 0, 19))
+                .willReturn(new LinkedHashSet<>(List.of("9")));
+
+        Page<Long> result = redisProductService.getPopularProductIds(
+                ProductCategory.BAG, ProductFilterType.ALL, PopularityWindow.TODAY, PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).containsExactly(9L);
+    }
+
+    @Test
+    @DisplayName("랭킹이 비어 있으면 빈 페이지 반환 (범위 조회 안 함)")
+    void getPopularProductIds_Empty() {
+        given(zSetOperations.zCard("product:popular:limited")).willReturn(0L);
+
+        Page<Long> result = redisProductService.getPopularProductIds(
+                null, ProductFilterType.LIMITED, PopularityWindow.ALL_TIME, PageRequest.of(0, 20));
+
+        assertThat(result.getTotalElements()).isZero();
+        verify(zSetOperations, never()).reverseRange(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("랭킹 재동기화: 다른 인스턴스가 리스를 잡고 있으면 DB를 읽지 않고 건너뜀")
+    void resyncFromDatabase_SkipsWhenLeaseHeld() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq("product:popular:resync:lock"), anyString(), any(Duration.class)))
+                .willReturn(false);
+
+        redisProductService.resyncFromDatabase();
+
+        verify(productRepository, never()).findRankingRowsAfter(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("카테고리 변경: 누적/기간별 랭킹과 최근 시간 버킷을 스크립트 한 번으로 새 하위 랭킹에 옮김")
+    void refreshRanking_MovesBucketsAtomically() {
+        Product product = Product.builder()
+                .productId(7L).productCategory(ProductCategory.BAG).price(1000.0).purchaseCount(3).build();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+        redisProductService.refreshRanking(product);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("product:popular")), args.capture());
+        verify(zSetOperations, never()).score(anyString(), any());
+        List<Object> values = Arrays.asList(args.getValue());
+        // 상품 ID, 누적 점수 기본값, 버킷 TTL, 시간 수(일주일), 대상 랭킹 수
+        assertThat(values.subList(0, 5)).containsExactly("7", "3", "691200", "168", "2");
+        assertThat(values.subList(5 + 168, 5 + 168 + 2)).containsExactly("product:popular", "product:popular:category:BAG");
+        assertThat(values).contains("product:popular:category:TOP", "product:popular:limited")
+                .hasSize(5 + 168 + 2 + 6);
+    }
+}
@@ -0,0 +1,94 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.repository.ProductStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StockCommitBufferTest {
+
+    @Mock
+    private ProductStockRepository productStockRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @InjectMocks
+    private StockCommitBuffer stockCommitBuffer;
+
+    @BeforeEach
+    void setUp() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq("stock:flush:lock"), anyString(), any(Duration.class))).willReturn(true);
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members("stock:pending-products")).willReturn(Set.of("10"));
+        given(valueOperations.multiGet(List.of("stock:pending:10"))).willReturn(List.of("3"));
+    }
+
+    @Test
+    @DisplayName("Redis의 미반영 수량을 DB에 반영한 뒤 반영한 만큼 카운터를 내림")
+    void flush_AppliesPendingFromRedis() {
+        given(productStockRepository.decreaseStockQuantities(Map.of(10L, 3L))).willReturn(List.of());
+
+        stockCommitBuffer.flush();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("stock:pending-products", "stock:oversold")),
+                eq("stock:pending:"), eq("10"), eq("3"), eq("0"));
+    }
+
+    @Test
+    @DisplayName("DB 재고가 모자라 반영되지 않은 수량은 0으로 맞추지 않고 초과 판매로 옮겨 기록")
+    void flush_GuardRejected_RecordsOversold() {
+        given(productStockRepository.decreaseStockQuantities(Map.of(10L, 3L))).willReturn(List.of(10L));
+
+        stockCommitBuffer.flush();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("stock:pending-products", "stock:oversold")),
+                eq("stock:pending:"), eq("10"), eq("3"), eq("1"));
+    }
+
+    @Test
+    @DisplayName("DB 반영 실패 시 미반영 카운터를 그대로 두어 다음 주기에 재시도")
+    void flush_DbFailure_KeepsPending() {
+        willThrow(new DataAccessResourceFailureException("db down"))
+                .given(productStockRepository).decreaseStockQuantities(Map.of(10L, 3L));
+
+        stockCommitBuffer.flush();
+
+        // 리스 해제 스크립트만 실행됨
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), eq(List.of("stock:pending-products", "stock:oversold")),
+                any(Object[].class));
+    }
+}
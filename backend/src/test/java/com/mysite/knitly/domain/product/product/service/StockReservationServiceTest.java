@@ -0,0 +1,87 @@
+package com.mysite.knitly.domain.product.product.service;
+
+import com.mysite.knitly.domain.product.product.entity.Product;
+import com.mysite.knitly.domain.product.product.repository.ProductRepository;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockCommitBuffer stockCommitBuffer;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    @Test
+    @DisplayName("재고 부족: 예약 실패 시 PRODUCT_STOCK_INSUFFICIENT")
+    void reserve_Insufficient() {
+        given(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).willReturn(1L);
+
+        assertThatThrownBy(() -> stockReservationService.reserve("order-1", Map.of(10L, 1)))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.PRODUCT_STOCK_INSUFFICIENT);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Redis 재고 키가 없으면 DB 재고에서 예약/미반영 수량을 뺀 값으로 채운 뒤 다시 예약")
+    void reserve_LoadsStockWhenMissing() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        Product product = Product.builder().productId(10L).stockQuantity(5).build();
+
+        given(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .willReturn(-1L, 5L, 0L);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(productRepository.findById(10L)).willReturn(Optional.of(product));
+
+        stockReservationService.reserve("order-1", Map.of(10L, 1));
+
+        verify(valueOperations).get("stock:pending:10");
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("stock:10", "stock:reserved:10", "stock:pending:10")), eq("5"), eq("0"), eq("NX"));
+    }
+
+    @Test
+    @DisplayName("같은 예약 ID의 예약이 이미 있으면 수량을 더하지 않고 false (롤백 시 해제하지 않도록)")
+    void reserve_AlreadyReserved() {
+        given(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).willReturn(2L);
+
+        boolean reserved = stockReservationService.reserve("order-1", Map.of(10L, 1));
+
+        assertThat(reserved).isFalse();
+        verify(productRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.mysite.knitly.domain.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.domain.user.entity.Provider;
+import com.mysite.knitly.domain.user.entity.User;
+import com.mysite.knitly.domain.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private UserPrincipalService userPrincipalService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userPrincipalService, "localTtlMillis", 30_000L);
+        ReflectionTestUtils.setField(userPrincipalService, "localMaxSize", 100);
+        ReflectionTestUtils.setField(userPrincipalService, "redisTtlSeconds", 600L);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("principal 조회: 캐시에 없으면 DB에서 읽어 Redis에 저장하고, 이후 요청은 로컬 캐시로 처리")
+    void getPrincipal_LoadsOnceThenLocal() {
+        User user = User.builder().userId(1L).socialId("s-1").email("a@b.c").name("뜨개").provider(Provider.GOOGLE).build();
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+
+        User first = userPrincipalService.getPrincipal(1L);
+        User second = userPrincipalService.getPrincipal(1L);
+
+        assertThat(first.getUserId()).isEqualTo(1L);
+        assertThat(second.getEmail()).isEqualTo("a@b.c");
+        assertThat(second).isNotSameAs(first);
+        verify(userRepository, times(1)).findById(1L);
+        verify(valueOperations).set(eq("auth:principal:1"), anyString(), eq(Duration.ofSeconds(600)));
+    }
+
+    @Test
+    @DisplayName("principal 조회: Redis에 스냅샷이 있으면 DB를 조회하지 않음")
+    void getPrincipal_FromRedis() {
+        given(valueOperations.get("auth:principal:2"))
+                .willReturn("{\"userId\":2,\"socialId\":\"s-2\",\"email\":\"x@y.z\",\"name\":\"니터\",\"provider\":\"GOOGLE\"}");
+
+        User user = userPrincipalService.getPrincipal(2L);
+
+        assertThat(user.getName()).isEqualTo("니터");
+        assertThat(user.getProvider()).isEqualTo(Provider.GOOGLE);
+        verify(userRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,140 @@
+package com.mysite.knitly.global.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "idempotency:orders:1:key-1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyService idempotencyService;
+
+    record Request(List<Long> productIds) {}
+    record Response(Long orderId) {}
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(redisTemplate, objectMapper);
+    }
+
+    @Test
+    @DisplayName("처음 들어온 요청은 실행하고 응답을 저장")
+    void execute_First() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).willReturn(true);
+
+        Response response = idempotencyService.execute("orders:1", "key-1", new Request(List.of(1L)),
+                Response.class, () -> new Response(10L));
+
+        assertThat(response.orderId()).isEqualTo(10L);
+        verify(valueOperations).set(eq(KEY), anyString(), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("이미 완료된 키는 실행하지 않고 저장된 응답을 반환")
+    void execute_Replay() throws Exception {
+        Request request = new Request(List.of(1L));
+        String fingerprint = fingerprintOf(request);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.get(KEY)).willReturn(objectMapper.writeValueAsString(
+                new IdempotencyRecord("owner", fingerprint, objectMapper.writeValueAsString(new Response(10L)), null)));
+
+        AtomicInteger executed = new AtomicInteger();
+        Response response = idempotencyService.execute("orders:1", "key-1", request,
+                Response.class, () -> new Response((long) executed.incrementAndGet()));
+
+        assertThat(response.orderId()).isEqualTo(10L);
+        assertThat(executed.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("결과 확인 중(202) 응답은 마커를 지우지 않고 저장해 재시도에 같은 응답을 반환")
+    void execute_PendingKeptForRetry() throws Exception {
+        Request request = new Request(List.of(1L));
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).willReturn(true, false);
+
+        assertThatThrownBy(() -> idempotencyService.execute("orders:1", "key-1", request, Response.class, () -> {
+            throw new ServiceException(ErrorCode.PAYMENT_CONFIRM_PENDING);
+        }))
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.PAYMENT_CONFIRM_PENDING);
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(KEY), stored.capture(), eq(Duration.ofHours(24)));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        given(valueOperations.get(KEY)).willReturn(stored.getValue());
+
+        AtomicInteger executed = new AtomicInteger();
+        assertThatThrownBy(() -> idempotencyService.execute("orders:1", "key-1", request,
+                Response.class, () -> new Response((long) executed.incrementAndGet())))
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.PAYMENT_CONFIRM_PENDING);
+        assertThat(executed.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 키를 다른 요청 본문에 사용하면 IDEMPOTENCY_KEY_REUSED")
+    void execute_KeyReused() throws Exception {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.get(KEY)).willReturn(objectMapper.writeValueAsString(
+                IdempotencyRecord.inFlight("owner", fingerprintOf(new Request(List.of(2L))))));
+
+        assertThatThrownBy(() -> idempotencyService.execute("orders:1", "key-1", new Request(List.of(1L)),
+                Response.class, () -> new Response(10L)))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    @DisplayName("키가 없으면 그대로 실행")
+    void execute_NoKey() {
+        Response response = idempotencyService.execute("orders:1", null, new Request(List.of(1L)),
+                Response.class, () -> new Response(10L));
+
+        assertThat(response.orderId()).isEqualTo(10L);
+    }
+
+    private String fingerprintOf(Object request) throws Exception {
+        byte[] hash = java.security.MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request));
+        return java.util.HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,94 @@
+package com.mysite.knitly.utility.auth.service;
+
+import com.mysite.knitly.domain.user.service.UserService;
+import com.mysite.knitly.global.exception.ErrorCode;
+import com.mysite.knitly.global.exception.ServiceException;
+import com.mysite.knitly.utility.auth.dto.TokenRefreshResponse;
+import com.mysite.knitly.utility.jwt.JwtProperties;
+import com.mysite.knitly.utility.jwt.JwtProvider;
+import com.mysite.knitly.utility.jwt.VerifiedToken;
+import com.mysite.knitly.utility.jwt.VerifiedTokenCache;
+import com.mysite.knitly.utility.redis.RefreshTokenRotationResult;
+import com.mysite.knitly.utility.redis.RefreshTokenService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private JwtProvider jwtProvider;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private JwtProperties jwtProperties;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    @DisplayName("토큰 갱신: 같은 기기로 새 Refresh Token을 발급하고 Redis에서 교체")
+    void refreshAccessToken_Rotated() {
+        given(jwtProvider.verify("rt-old")).willReturn(new VerifiedToken(1L, "device-1", Long.MAX_VALUE));
+        given(jwtProvider.createRefreshToken(1L, "device-1")).willReturn("rt-new");
+        given(jwtProvider.createAccessToken(1L)).willReturn("at-new");
+        given(refreshTokenService.rotate(1L, "device-1", "rt-old", "rt-new"))
+                .willReturn(RefreshTokenRotationResult.ROTATED);
+
+        TokenRefreshResponse response = authService.refreshAccessToken("rt-old");
+
+        assertThat(response.getAccessToken()).isEqualTo("at-new");
+        assertThat(response.getRefreshToken()).isEqualTo("rt-new");
+    }
+
+    @Test
+    @DisplayName("토큰 갱신: 이미 교체된 Refresh Token 재사용 시 거절하고 검증 캐시도 비움")
+    void refreshAccessToken_Reused() {
+        given(jwtProvider.verify("rt-stolen")).willReturn(new VerifiedToken(1L, "device-1", Long.MAX_VALUE));
+        given(jwtProvider.createRefreshToken(1L, "device-1")).willReturn("rt-new");
+        given(refreshTokenService.rotate(1L, "device-1", "rt-stolen", "rt-new"))
+                .willReturn(RefreshTokenRotationResult.REUSED);
+
+        assertThatThrownBy(() -> authService.refreshAccessToken("rt-stolen"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(verifiedTokenCache).evictUser(1L);
+        verify(jwtProvider, never()).createAccessToken(anyLong());
+    }
+
+    @Test
+    @DisplayName("토큰 갱신: 같은 기기의 동시 갱신이면 409 (로그아웃 처리 안 함)")
+    void refreshAccessToken_Concurrent() {
+        given(jwtProvider.verify("rt-old")).willReturn(new VerifiedToken(1L, "device-1", Long.MAX_VALUE));
+        given(jwtProvider.createRefreshToken(1L, "device-1")).willReturn("rt-new");
+        given(refreshTokenService.rotate(1L, "device-1", "rt-old", "rt-new"))
+                .willReturn(RefreshTokenRotationResult.CONCURRENT);
+
+        assertThatThrownBy(() -> authService.refreshAccessToken("rt-old"))
+                .isInstanceOf(ServiceException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.REFRESH_TOKEN_ROTATION_IN_PROGRESS);
+
+        verify(verifiedTokenCache, never()).evictUser(anyLong());
+        verify(jwtProvider, never()).createAccessToken(anyLong());
+    }
+}
@@ -0,0 +1,51 @@
+package com.mysite.knitly.utility.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtProviderTest {
+
+    private static final String OLD_SECRET = "old-secret-key-for-knitly-test-0123456789";
+    private static final String NEW_SECRET = "new-secret-key-for-knitly-test-0123456789";
+
+    private JwtProvider provider(String keyId, String secret, Map<String, String> previousKeys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setKeyId(keyId);
+        properties.setSecretKey(secret);
+        properties.setPreviousKeys(previousKeys);
+        properties.setAccessTokenExpireSeconds(1800);
+        properties.setRefreshTokenExpireSeconds(604800);
+
+        JwtProvider provider = new JwtProvider(properties);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    @DisplayName("토큰 검증: 발급한 토큰은 한 번의 파싱으로 userId를 돌려주고, 변조된 토큰은 null")
+    void getUserIdIfValid_RoundTrip() {
+        JwtProvider provider = provider("v1", OLD_SECRET, Map.of());
+
+        String token = provider.createAccessToken(42L);
+
+        assertThat(provider.getUserIdIfValid(token)).isEqualTo(42L);
+        assertThat(provider.getUserIdIfValid(token + "x")).isNull();
+    }
+
+    @Test
+    @DisplayName("키 교체: 이전 kid로 서명된 토큰은 검증되고, 모르는 kid는 거부")
+    void getUserIdIfValid_KeyRotation() {
+        String oldToken = provider("v1", OLD_SECRET, Map.of()).createAccessToken(7L);
+
+        JwtProvider rotated = provider("v2", NEW_SECRET, Map.of("v1", OLD_SECRET));
+        JwtProvider withoutOldKey = provider("v2", NEW_SECRET, Map.of());
+
+        assertThat(rotated.getUserIdIfValid(oldToken)).isEqualTo(7L);
+        assertThat(rotated.getUserIdIfValid(rotated.createAccessToken(8L))).isEqualTo(8L);
+        assertThat(withoutOldKey.getUserIdIfValid(oldToken)).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mysite.knitly.utility.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 토큰 검증 처리량 비교 (캐시 적중 vs 매번 서명 검증)
+ * 평소 테스트에서는 건너뛰고, KNITLY_BENCHMARK=true 일 때만 실행:
+ * KNITLY_BENCHMARK=true ./gradlew test --tests '*VerifiedTokenCacheBenchmarkTest'
+ */
+@EnabledIfEnvironmentVariable(named = "KNITLY_BENCHMARK", matches = "true")
+class VerifiedTokenCacheBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCacheBenchmarkTest.class);
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURE_ITERATIONS = 1_000_000;
+
+    @Test
+    @DisplayName("벤치마크: 검증 캐시 적중 시 처리량이 서명 검증보다 높아야 함")
+    void compareThroughput() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey("benchmark-secret-key-for-knitly-0123456789");
+        properties.setPreviousKeys(Map.of());
+        properties.setAccessTokenExpireSeconds(1800);
+        JwtProvider jwtProvider = new JwtProvider(properties);
+        jwtProvider.init();
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProvider);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000);
+
+        String token = jwtProvider.createAccessToken(1L);
+
+        double uncached = opsPerSecond(t -> jwtProvider.getUserIdIfValid(t), token);
+        double cached = opsPerSecond(cache::getUserIdIfValid, token);
+
+        String result = String.format("uncached: %,.0f ops/s, cached: %,.0f ops/s (x%.1f)",
+                uncached, cached, cached / uncached);
+        log.info("[Benchmark] {}", result);
+        assertThat(cached).as(result).isGreaterThan(uncached);
+    }
+
+    private static double opsPerSecond(ToLongFunction<String> validate, String token) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += validate.applyAsLong(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            sink += validate.applyAsLong(token);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(sink).isPositive();
+        return MEASURE_ITERATIONS / (elapsed / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.mysite.knitly.utility.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtProvider jwtProvider;
+
+    @InjectMocks
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 2);
+    }
+
+    @Test
+    @DisplayName("토큰 캐시: 같은 토큰은 한 번만 서명 검증하고, 로그아웃하면 다시 검증")
+    void getUserIdIfValid_CachesUntilEvicted() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        given(jwtProvider.verify("token-a")).willReturn(new VerifiedToken(1L, null, expiresAt));
+
+        assertThat(verifiedTokenCache.getUserIdIfValid("token-a")).isEqualTo(1L);
+        assertThat(verifiedTokenCache.getUserIdIfValid("token-a")).isEqualTo(1L);
+        verify(jwtProvider, times(1)).verify("token-a");
+
+        verifiedTokenCache.evictUser(1L);
+        verifiedTokenCache.getUserIdIfValid("token-a");
+        verify(jwtProvider, times(2)).verify("token-a");
+    }
+
+    @Test
+    @DisplayName("토큰 캐시: 용량을 넘으면 가장 오래 안 쓴 토큰부터 제거, 유효하지 않은 토큰은 캐시하지 않음")
+    void getUserIdIfValid_EvictsLeastRecentlyUsed() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        given(jwtProvider.verify("token-a")).willReturn(new VerifiedToken(1L, null, expiresAt));
+        given(jwtProvider.verify("token-b")).willReturn(new VerifiedToken(2L, null, expiresAt));
+        given(jwtProvider.verify("token-c")).willReturn(new VerifiedToken(3L, null, expiresAt));
+
+        verifiedTokenCache.getUserIdIfValid("token-a");
+        verifiedTokenCache.getUserIdIfValid("token-b");
+        verifiedTokenCache.getUserIdIfValid("token-a");
+        verifiedTokenCache.getUserIdIfValid("token-c"); // token-b 제거
+        verifiedTokenCache.getUserIdIfValid("token-a");
+        verifiedTokenCache.getUserIdIfValid("token-b");
+
+        verify(jwtProvider, times(1)).verify("token-a");
+        verify(jwtProvider, times(2)).verify("token-b");
+        assertThat(verifiedTokenCache.getUserIdIfValid("forged")).isNull();
+        assertThat(verifiedTokenCache.getUserIdIfValid("forged")).isNull();
+        verify(jwtProvider, times(2)).verify("forged");
+    }
+}
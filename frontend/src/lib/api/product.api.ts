@@ -72,7 +72,7 @@ export type ProductFilterType = 'ALL' | 'FREE' | 'LIMITED';
 /**
  * 상품 정렬 타입
  */
-export type ProductSortType = 'POPULAR' | 'LATEST' | 'PRICE_ASC' | 'PRICE_DESC';
+export type ProductSortType = 'POPULAR' | 'POPULAR_TODAY' | 'POPULAR_WEEK' | 'LATEST' | 'PRICE_ASC' | 'PRICE_DESC';
 
 /**
  * 상품 목록 조회 파라미터